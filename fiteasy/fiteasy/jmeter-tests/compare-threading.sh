@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+# Runs "Threading Comparison.jmx" against the app in platform-thread and then virtual-thread mode
+# and prints throughput and p99 per sampler for both.
+# Needs jmeter and curl on PATH, MySQL running, the jar built (mvn package -DskipTests) and the
+# load test user registered. Extra arguments go to jmeter, e.g. ./compare-threading.sh -Jthreads=800 -JuserId=2
+set -euo pipefail
+cd "$(dirname "$0")"
+
+JAR=${JAR:-../target/fiteasy-0.0.1-SNAPSHOT.jar}
+PORT=${PORT:-8080}
+OUT=${OUT:-threading-results}
+
+rm -rf "$OUT"
+mkdir -p "$OUT"
+
+for mode in platform virtual; do
+  profile=default
+  [ "$mode" = virtual ] && profile=virtual-threads
+
+  java -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profile" > "$OUT/app-$mode.log" 2>&1 &
+  app=$!
+  trap 'kill $app 2>/dev/null || true' EXIT
+  for _ in $(seq 1 120); do
+    curl -sf "http://localhost:$PORT/actuator/health" > /dev/null && break
+    sleep 1
+  done
+
+  jmeter -n -t "Threading Comparison.jmx" -Jport="$PORT" "$@" -l "$OUT/$mode.jtl" -e -o "$OUT/$mode-report"
+
+  kill "$app"
+  wait "$app" || true
+done
+
+# Summary from the statistics.json of each HTML report (pct3ResTime is the 99th percentile)
+python3 - "$OUT" <<'PY'
+import json, sys
+out = sys.argv[1]
+print(f"{'mode':<10}{'sampler':<20}{'throughput/s':>14}{'p99 ms':>10}{'errors %':>10}")
+for mode in ("platform", "virtual"):
+    with open(f"{out}/{mode}-report/statistics.json") as f:
+        stats = json.load(f)
+    for name, s in stats.items():
+        print(f"{mode:<10}{name:<20}{s['throughput']:>14.1f}{s['pct3ResTime']:>10.1f}{s['errorPct']:>10.2f}")
+PY
@@ -0,0 +1,92 @@
+package com.fiteasy.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the User and WorkoutPlan lists returned by the
+ * listing endpoints, with the ObjectMapper configured as in application.properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private ObjectWriter writer;
+    private List<User> users;
+    private List<WorkoutPlan> workoutPlans;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .setTimeZone(TimeZone.getTimeZone("UTC"));
+        writer = objectMapper.writer();
+
+        users = new ArrayList<>(size);
+        workoutPlans = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = new User("user" + i, "user" + i + "@example.com", "secret-password-" + i);
+            user.setId((long) i + 1);
+            user.setName("User Number " + i);
+            user.setDateCreated(LocalDate.of(2025, 1, 1).plusDays(i % 365));
+            user.setBirthDate(LocalDate.of(1990, 1, 1).plusDays(i % 5000));
+            user.setAge(20 + i % 40);
+            user.setContacts("+94 77 123 " + (1000 + i % 9000));
+            user.setGoals("Lose 5kg and run a half marathon");
+            users.add(user);
+
+            WorkoutPlan plan = new WorkoutPlan();
+            plan.setId((long) i + 1);
+            plan.setUserId((long) (i % 100) + 1);
+            plan.setHeight(BigDecimal.valueOf(17500, 2));
+            plan.setWeight(BigDecimal.valueOf(7000 + i % 3000, 2));
+            plan.setBmiData("22.86");
+            plan.setTrainer("John Doe");
+            plan.setGymName("FitGym Colombo");
+            plan.setWorkOut("Squats 5x5, bench press 5x5, barbell rows 5x5, 20 minutes of rowing");
+            plan.setRepsSets("5x5");
+            plan.setCreatedAt(LocalDateTime.of(2025, 1, 1, 8, 0).plusMinutes(i));
+            workoutPlans.add(plan);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeUsers() throws Exception {
+        return writer.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] serializeWorkoutPlans() throws Exception {
+        return writer.writeValueAsBytes(workoutPlans);
+    }
+}
@@ -0,0 +1,150 @@
+package com.fiteasy.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts 100k workout plans in one transaction (flushing every 1000 rows), once
+ * with the old IDENTITY mapping and once with the pooled table generator that
+ * WorkoutPlan now uses. Runs against in-memory H2 by default, which understates
+ * the gap: pass -Djmh.insert.url/user/password to point it at a scratch MySQL
+ * schema (add rewriteBatchedStatements=true to the URL as in application.properties).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WorkoutPlanInsertBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int FLUSH_EVERY = 1000;
+
+    @Param({"identity", "pooled"})
+    public String idGeneration;
+
+    private SessionFactory sessionFactory;
+
+    // The mapping WorkoutPlan had before, on its own table
+    @Entity
+    @Table(name = "workout_plans_identity")
+    public static class IdentityWorkoutPlan {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+
+        @Column(name = "user_id", nullable = false)
+        Long userId;
+
+        @Column(name = "bmi_data")
+        String bmiData;
+
+        @Column(precision = 5, scale = 2)
+        BigDecimal height;
+
+        @Column(precision = 5, scale = 2)
+        BigDecimal weight;
+
+        String trainer;
+
+        @Column(name = "gym_name")
+        String gymName;
+
+        @Column(name = "work_out", length = 500)
+        String workOut;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(IdentityWorkoutPlan.class)
+                .addAnnotatedClass(WorkoutPlan.class)
+                .setProperty("hibernate.connection.url", System.getProperty("jmh.insert.url", "jdbc:h2:mem:inserts;DB_CLOSE_DELAY=-1"))
+                .setProperty("hibernate.connection.username", System.getProperty("jmh.insert.user", "sa"))
+                .setProperty("hibernate.connection.password", System.getProperty("jmh.insert.password", ""))
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .setProperty("hibernate.order_inserts", "true")
+                .buildSessionFactory();
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate() {
+        sessionFactory.inTransaction(session -> {
+            session.createMutationQuery("DELETE FROM WorkoutPlanInsertBenchmark$IdentityWorkoutPlan").executeUpdate();
+            session.createMutationQuery("DELETE FROM WorkoutPlan").executeUpdate();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public int insert100k() {
+        boolean pooled = "pooled".equals(idGeneration);
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < ROWS; i++) {
+                session.persist(pooled ? pooledPlan(i) : identityPlan(i));
+                if ((i + 1) % FLUSH_EVERY == 0) {
+                    flushAndClear(session);
+                }
+            }
+            flushAndClear(session);
+        });
+        return ROWS;
+    }
+
+    private static void flushAndClear(Session session) {
+        session.flush();
+        session.clear();
+    }
+
+    private static WorkoutPlan pooledPlan(int i) {
+        WorkoutPlan plan = new WorkoutPlan((long) (i % 5000));
+        plan.setBmiData("22.86");
+        plan.setHeight(new BigDecimal("175.00"));
+        plan.setWeight(new BigDecimal("70.00"));
+        plan.setTrainer("Trainer " + (i % 300));
+        plan.setGymName("Gym " + (i % 120));
+        plan.setWorkOut("Squats 5x5, bench 5x5, rows 3x8");
+        return plan;
+    }
+
+    private static IdentityWorkoutPlan identityPlan(int i) {
+        IdentityWorkoutPlan plan = new IdentityWorkoutPlan();
+        plan.userId = (long) (i % 5000);
+        plan.bmiData = "22.86";
+        plan.height = new BigDecimal("175.00");
+        plan.weight = new BigDecimal("70.00");
+        plan.trainer = "Trainer " + (i % 300);
+        plan.gymName = "Gym " + (i % 120);
+        plan.workOut = "Squats 5x5, bench 5x5, rows 3x8";
+        return plan;
+    }
+}
@@ -0,0 +1,82 @@
+package com.fiteasy.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inverted index lookup vs. the linear LIKE '%term%' scan it replaces, over a
+ * synthetic helping tool table. The scan runs on pre-lowercased strings held in
+ * memory, so it is a lower bound for what MySQL does on a full table scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class HelpingToolSearchBenchmark {
+
+    private static final String[] HOSTS = {"www.youtube.com", "youtu.be", "www.amazon.com", "www.decathlon.com", "www.roguefitness.com"};
+    private static final String[] WORDS = {"squat", "deadlift", "bench", "press", "mobility", "stretch", "kettlebell",
+            "dumbbell", "resistance", "band", "cardio", "rowing", "yoga", "core", "beginner", "advanced", "form", "tutorial"};
+
+    private static final int VOCABULARY = 20_000;
+
+    @Param({"1000000"})
+    public int rows;
+
+    // A common word, a prefix, a two-word query and a rare word
+    @Param({"squat", "kettle", "resistance band", "term4242"})
+    public String query;
+
+    private HelpingToolSearchIndex index;
+    private String[] descriptions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        index = new HelpingToolSearchIndex();
+        descriptions = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            String url = "https://" + HOSTS[random.nextInt(HOSTS.length)] + "/watch?v=" + Long.toString(random.nextLong() & Long.MAX_VALUE, 36);
+            // Two exercise words plus free text drawn from a larger vocabulary
+            String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " term" + random.nextInt(VOCABULARY) + " term" + random.nextInt(VOCABULARY) + " video";
+            index.add((long) i + 1, (long) (i % 10_000) + 1, url, description);
+            descriptions[i] = description.toLowerCase();
+        }
+        index.markReady();
+    }
+
+    @Benchmark
+    public List<Long> invertedIndex() {
+        return index.search(HelpingToolSearchIndex.Field.DESCRIPTION, query, 500);
+    }
+
+    @Benchmark
+    public List<Long> likeScan() {
+        String term = query.toLowerCase();
+        List<Long> matches = new ArrayList<>();
+        for (int i = 0; i < descriptions.length; i++) {
+            if (descriptions[i].contains(term)) {
+                matches.add((long) i + 1);
+            }
+        }
+        return matches;
+    }
+}
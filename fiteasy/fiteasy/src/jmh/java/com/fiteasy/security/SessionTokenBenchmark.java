@@ -0,0 +1,64 @@
+package com.fiteasy.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a session token: HMAC check, expiry
+ * check and revocation lookup, with a populated revocation list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionTokenBenchmark {
+
+    private static final int TOKENS = 1024;
+
+    private SessionTokenService tokens;
+
+    private String[] valid;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        tokens = new SessionTokenService();
+        ReflectionTestUtils.setField(tokens, "keys", "");
+        ReflectionTestUtils.setField(tokens, "tokenTtl", Duration.ofHours(12));
+        ReflectionTestUtils.setField(tokens, "revocationTick", Duration.ofMinutes(1));
+        tokens.init();
+        valid = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            valid[i] = tokens.issue(i).token();
+        }
+        for (int i = 0; i < 10_000; i++) {
+            tokens.revoke(tokens.issue(i).token());
+        }
+    }
+
+    @Benchmark
+    public Optional<SessionTokenService.Session> verify() {
+        return tokens.verify(valid[next++ & (TOKENS - 1)]);
+    }
+
+    @Benchmark
+    public SessionTokenService.IssuedToken issue() {
+        return tokens.issue(42L);
+    }
+}
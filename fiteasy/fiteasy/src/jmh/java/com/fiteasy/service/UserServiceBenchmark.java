@@ -0,0 +1,51 @@
+package com.fiteasy.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registration input validation. emailStringMatches is the former
+ * implementation (String.matches compiles the regex on every call) and is
+ * kept as a reference point for isValidEmail.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private final UserService userService = new UserService();
+
+    @Param({"john.doe+fit@example-mail.com", "not-an-email@localhost"})
+    public String email;
+
+    @Param({"correct-horse-battery"})
+    public String password;
+
+    @Benchmark
+    public boolean isValidEmail() {
+        return userService.isValidEmail(email);
+    }
+
+    @Benchmark
+    public boolean emailStringMatches() {
+        return email.matches(UserService.EMAIL_REGEX);
+    }
+
+    @Benchmark
+    public boolean isValidPassword() {
+        return userService.isValidPassword(password);
+    }
+}
@@ -0,0 +1,63 @@
+package com.fiteasy.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BMI calculation and categorisation as done for every workout plan save and
+ * every calculate-bmi request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkoutPlanServiceBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    private final WorkoutPlanService workoutPlanService = new WorkoutPlanService();
+
+    private BigDecimal[] heights;
+    private BigDecimal[] weights;
+    private BigDecimal[] bmis;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        heights = new BigDecimal[SAMPLES];
+        weights = new BigDecimal[SAMPLES];
+        bmis = new BigDecimal[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            heights[i] = BigDecimal.valueOf(14000 + random.nextInt(6000), 2);
+            weights[i] = BigDecimal.valueOf(4000 + random.nextInt(9000), 2);
+            bmis[i] = BigDecimal.valueOf(1500 + random.nextInt(2500), 2);
+        }
+    }
+
+    @Benchmark
+    public String calculateBMI() {
+        int i = next++ & (SAMPLES - 1);
+        return workoutPlanService.calculateBMI(heights[i], weights[i]);
+    }
+
+    @Benchmark
+    public String getBMICategory() {
+        return workoutPlanService.getBMICategory(bmis[next++ & (SAMPLES - 1)]);
+    }
+}
@@ -0,0 +1,68 @@
+package com.fiteasy.util;
+
+import com.fiteasy.service.WorkoutPlanService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-measurement cost of the single-request BMI path (BigDecimal parse, divide,
+ * re-parse of the result for the category) against BmiCalculator's long arithmetic.
+ * Both start from the decimal text found in a request body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BmiCalculatorBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    private final WorkoutPlanService workoutPlanService = new WorkoutPlanService();
+
+    private String[] heights;
+    private String[] weights;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        heights = new String[SAMPLES];
+        weights = new String[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            heights[i] = BigDecimal.valueOf(140 + random.nextInt(6000) / 100.0).toPlainString();
+            weights[i] = BigDecimal.valueOf(40 + random.nextInt(9000) / 100.0).toPlainString();
+        }
+    }
+
+    @Benchmark
+    public void bigDecimal(Blackhole blackhole) {
+        int i = next++ & (SAMPLES - 1);
+        String bmi = workoutPlanService.calculateBMI(new BigDecimal(heights[i]), new BigDecimal(weights[i]));
+        blackhole.consume(bmi);
+        blackhole.consume(workoutPlanService.getBMICategory(new BigDecimal(bmi)));
+    }
+
+    @Benchmark
+    public void bmiCalculator(Blackhole blackhole) {
+        int i = next++ & (SAMPLES - 1);
+        long cents = BmiCalculator.bmiCents(heights[i], weights[i]);
+        blackhole.consume(BmiCalculator.format(cents));
+        blackhole.consume(BmiCalculator.category(cents));
+    }
+}
@@ -0,0 +1,10 @@
+package com.fiteasy.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+// @Async methods run on the auto-configured applicationTaskExecutor (virtual threads in the virtual-threads profile)
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
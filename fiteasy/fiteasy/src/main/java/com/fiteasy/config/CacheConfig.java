@@ -0,0 +1,29 @@
+package com.fiteasy.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String WORKOUT_PLANS_BY_USER = "workoutPlansByUser";
+    public static final String HELPING_TOOLS_BY_USER = "helpingToolsByUser";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}") String spec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(USERS, WORKOUT_PLANS_BY_USER, HELPING_TOOLS_BY_USER);
+        caffeineCacheManager.setCacheSpecification(spec);
+        caffeineCacheManager.setAllowNullValues(false);
+
+        // Defer puts and evictions until the surrounding transaction commits, so a
+        // concurrent read cannot re-cache rows that a write is about to change
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -0,0 +1,46 @@
+package com.fiteasy.config;
+
+import com.fiteasy.monitoring.QueryCapture;
+import com.fiteasy.monitoring.SqlLogger;
+import com.fiteasy.monitoring.SqlStatementCounter;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Wraps the pool in a datasource-proxy so JDBC statements can be observed (see QueryCapture, SqlStatementCounter, SqlLogger)
+@Configuration
+public class DataSourceProxyConfig {
+
+    // Static, so the post-processor exists before the DataSource bean is created. Delegating
+    // DataSources (the replica routing proxy) are skipped: the pools behind them are wrapped already
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(Environment environment) {
+        Binder binder = Binder.get(environment);
+        SqlLogger sqlLogger = new SqlLogger(
+                binder.bind("app.sql.log.slow-threshold", Duration.class).orElse(Duration.ofMillis(200)),
+                binder.bind("app.sql.log.sample-rate", Double.class).orElse(0.01));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)
+                        && !(bean instanceof DelegatingDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new QueryCapture.Listener())
+                            .listener(new SqlStatementCounter.Listener())
+                            .listener(sqlLogger)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
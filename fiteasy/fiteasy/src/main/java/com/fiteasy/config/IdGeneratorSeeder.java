@@ -0,0 +1,62 @@
+package com.fiteasy.config;
+
+import com.fiteasy.model.IdGenerators;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Migration path from AUTO_INCREMENT ids: before the first insert, moves each
+ * pooled generator row past the highest id already in its table, creating the
+ * row if needed. Runs on every startup and only ever raises the stored value,
+ * so it is safe with several instances and after db/pooled-id-generators.sql.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class IdGeneratorSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorSeeder.class);
+
+    // Generator name -> table whose ids it allocates
+    private static final Map<String, String> TABLES = Map.of(
+            IdGenerators.USERS, "users",
+            IdGenerators.WORKOUT_PLANS, "workout_plans",
+            IdGenerators.HELPING_TOOLS, "helping_tools"
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void seed() {
+        TABLES.forEach(this::seed);
+    }
+
+    private void seed(String generator, String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        // The row stores the last value handed out; the next block is (stored + 1 - allocation, stored + 1]
+        long floor = (maxId == null ? 0 : maxId) + IdGenerators.ALLOCATION_SIZE - 1;
+        String update = "UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN + " = ? WHERE "
+                + IdGenerators.NAME_COLUMN + " = ? AND " + IdGenerators.VALUE_COLUMN + " < ?";
+        String exists = "SELECT COUNT(*) FROM " + IdGenerators.TABLE + " WHERE " + IdGenerators.NAME_COLUMN + " = ?";
+
+        if (jdbcTemplate.update(update, floor, generator, floor) == 0
+                && jdbcTemplate.queryForObject(exists, Integer.class, generator) == 0) {
+            try {
+                jdbcTemplate.update("INSERT INTO " + IdGenerators.TABLE + " (" + IdGenerators.NAME_COLUMN + ", "
+                        + IdGenerators.VALUE_COLUMN + ") VALUES (?, ?)", generator, floor);
+            } catch (DuplicateKeyException e) {
+                // Another instance created the row first
+                jdbcTemplate.update(update, floor, generator, floor);
+            }
+            log.info("Seeded id generator {} at {} (max id in {} was {})", generator, floor, table, maxId);
+        }
+    }
+}
@@ -1,9 +1,17 @@
 package com.fiteasy.config;
 
+import com.fiteasy.security.SessionTokenFilter;
+import com.fiteasy.security.SessionTokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -11,6 +19,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -20,6 +29,51 @@ import java.util.Arrays;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // BCrypt log rounds; raising it rehashes existing passwords on their next login
+    @Value("${app.password.bcrypt-cost:10}")
+    private int bcryptCost;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    // Off until every client sends the signed token; a presented token is verified either way
+    @Value("${app.auth.require-token:false}")
+    private boolean requireToken;
+
+    // Monitoring credentials for the actuator endpoints other than health and info (metrics, prometheus).
+    // With no password set those endpoints reject every request
+    @Value("${app.management.username:monitor}")
+    private String managementUsername;
+
+    @Value("${app.management.password:}")
+    private String managementPassword;
+
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        InMemoryUserDetailsManager monitoringUsers = new InMemoryUserDetailsManager();
+        if (!managementPassword.isBlank()) {
+            monitoringUsers.createUser(User.builder()
+                .username(managementUsername)
+                .password(passwordEncoder().encode(managementPassword))
+                .roles("ACTUATOR")
+                .build());
+        }
+
+        http
+            .securityMatcher(EndpointRequest.toAnyEndpoint())
+            .csrf(csrf -> csrf.disable())
+            .authorizeHttpRequests(authz -> authz
+                .requestMatchers(EndpointRequest.to("health", "info")).permitAll()
+                .anyRequest().hasRole("ACTUATOR")
+            )
+            .httpBasic(Customizer.withDefaults())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .userDetailsService(monitoringUsers);
+
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -37,14 +91,15 @@ public class SecurityConfig {
                     "/api/helping-tools/**"
                 ).permitAll()
                 .anyRequest().permitAll()
-            );
+            )
+            .addFilterBefore(new SessionTokenFilter(sessionTokenService, requireToken), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptCost);
     }
 
     @Bean
@@ -78,6 +133,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000")); // Allow your React frontend
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("X-Next-Page"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
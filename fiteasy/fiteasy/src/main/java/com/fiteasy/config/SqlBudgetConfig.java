@@ -0,0 +1,45 @@
+package com.fiteasy.config;
+
+import com.fiteasy.monitoring.SqlBudgetInterceptor;
+import com.fiteasy.monitoring.SqlBudgetStreamingHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBodyReturnValueHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Per-request SQL statement counting for the REST API
+@Configuration
+public class SqlBudgetConfig implements WebMvcConfigurer, SmartInitializingSingleton {
+
+    @Autowired
+    private SqlBudgetInterceptor sqlBudgetInterceptor;
+
+    // Looked up late - the adapter is built from the WebMvcConfigurers, this one included
+    @Autowired
+    private ObjectProvider<RequestMappingHandlerAdapter> handlerAdapters;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlBudgetInterceptor).addPathPatterns("/api/**");
+    }
+
+    // Custom return value handlers run after the built-in ones, so the streaming handler is replaced in place
+    @Override
+    public void afterSingletonsInstantiated() {
+        handlerAdapters.forEach(adapter -> {
+            List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(adapter.getReturnValueHandlers());
+            handlers.replaceAll(handler -> handler instanceof StreamingResponseBodyReturnValueHandler
+                    ? new SqlBudgetStreamingHandler(handler, sqlBudgetInterceptor)
+                    : handler);
+            adapter.setReturnValueHandlers(handlers);
+        });
+    }
+}
@@ -1,11 +1,20 @@
 package com.fiteasy.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fiteasy.model.HelpingTool;
+import com.fiteasy.monitoring.SqlBudget;
+import com.fiteasy.repository.HelpingToolSummary;
+import com.fiteasy.service.ExportService;
 import com.fiteasy.service.HelpingToolService;
+import com.fiteasy.util.CursorPage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,7 +28,15 @@ public class HelpingToolsController {
     @Autowired
     private HelpingToolService helpingToolService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
 
+    // User check, insert, counter update; +2 when the id generator fetches its next block
+    @SqlBudget(5)
     @PostMapping
     public ResponseEntity<?> createHelpingTool(@RequestBody HelpingTool helpingTool) {
         try {
@@ -36,27 +53,31 @@ public class HelpingToolsController {
     }
 
 
+    @SqlBudget(1)
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<HelpingTool>> getHelpingToolsByUserId(@PathVariable Long userId) {
-        List<HelpingTool> tools = helpingToolService.getHelpingToolsByUserId(userId);
+    public ResponseEntity<List<HelpingToolSummary>> getHelpingToolsByUserId(@PathVariable Long userId) {
+        List<HelpingToolSummary> tools = helpingToolService.getHelpingToolsByUserId(userId);
         return ResponseEntity.ok(tools);
     }
 
 
+    @SqlBudget(1)
     @GetMapping("/user/{userId}/youtube")
-    public ResponseEntity<List<HelpingTool>> getYouTubeLinks(@PathVariable Long userId) {
-        List<HelpingTool> youtubeLinks = helpingToolService.getHelpingToolsByUserIdAndType(userId, HelpingTool.ToolType.youtube);
+    public ResponseEntity<List<HelpingToolSummary>> getYouTubeLinks(@PathVariable Long userId) {
+        List<HelpingToolSummary> youtubeLinks = helpingToolService.getHelpingToolsByUserIdAndType(userId, HelpingTool.ToolType.youtube);
         return ResponseEntity.ok(youtubeLinks);
     }
 
 
+    @SqlBudget(1)
     @GetMapping("/user/{userId}/equipment")
-    public ResponseEntity<List<HelpingTool>> getEquipmentLinks(@PathVariable Long userId) {
-        List<HelpingTool> equipmentLinks = helpingToolService.getHelpingToolsByUserIdAndType(userId, HelpingTool.ToolType.equipment);
+    public ResponseEntity<List<HelpingToolSummary>> getEquipmentLinks(@PathVariable Long userId) {
+        List<HelpingToolSummary> equipmentLinks = helpingToolService.getHelpingToolsByUserIdAndType(userId, HelpingTool.ToolType.equipment);
         return ResponseEntity.ok(equipmentLinks);
     }
 
 
+    @SqlBudget(1)
     @GetMapping("/{id}")
     public ResponseEntity<?> getHelpingToolById(@PathVariable Long id) {
         Optional<HelpingTool> tool = helpingToolService.getHelpingToolById(id);
@@ -85,6 +106,7 @@ public class HelpingToolsController {
     }
 
 
+    @SqlBudget(5)
     @PostMapping("/youtube")
     public ResponseEntity<?> addYouTubeLink(@RequestBody Map<String, Object> request) {
         try {
@@ -113,6 +135,7 @@ public class HelpingToolsController {
         }
     }
 
+    @SqlBudget(5)
     @PostMapping("/equipment")
     public ResponseEntity<?> addEquipmentLink(@RequestBody Map<String, Object> request) {
         try {
@@ -158,7 +181,25 @@ public class HelpingToolsController {
         }
     }
 
+    //  Delete several helping tools by id - body is a JSON array of ids
+    @DeleteMapping("/batch")
+    public ResponseEntity<?> deleteHelpingTools(@RequestBody List<Long> ids) {
+        try {
+            int deleted = helpingToolService.deleteHelpingTools(ids);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", deleted + " helping tools deleted successfully");
+            response.put("deletedCount", deleted);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     //  count of helping tools for dashboard
+    @SqlBudget(2)
     @GetMapping("/count/user/{userId}")
     public ResponseEntity<Map<String, Long>> getHelpingToolsCount(@PathVariable Long userId) {
         long youtubeCount = helpingToolService.getCountByUserIdAndType(userId, HelpingTool.ToolType.youtube);
@@ -173,15 +214,17 @@ public class HelpingToolsController {
     }
 
     // Search functionality
+    @SqlBudget(1)
     @GetMapping("/search/url")
-    public ResponseEntity<List<HelpingTool>> searchByUrl(@RequestParam String searchTerm) {
-        List<HelpingTool> tools = helpingToolService.searchHelpingToolsByUrl(searchTerm);
+    public ResponseEntity<List<HelpingToolSummary>> searchByUrl(@RequestParam String searchTerm) {
+        List<HelpingToolSummary> tools = helpingToolService.searchHelpingToolsByUrl(searchTerm);
         return ResponseEntity.ok(tools);
     }
 
+    @SqlBudget(1)
     @GetMapping("/search/description")
-    public ResponseEntity<List<HelpingTool>> searchByDescription(@RequestParam String searchTerm) {
-        List<HelpingTool> tools = helpingToolService.searchHelpingToolsByDescription(searchTerm);
+    public ResponseEntity<List<HelpingToolSummary>> searchByDescription(@RequestParam String searchTerm) {
+        List<HelpingToolSummary> tools = helpingToolService.searchHelpingToolsByDescription(searchTerm);
         return ResponseEntity.ok(tools);
     }
 
@@ -191,4 +234,35 @@ public class HelpingToolsController {
         List<HelpingTool> tools = helpingToolService.getAllHelpingTools();
         return ResponseEntity.ok(tools);
     }
+
+    // Keyset paginated admin listing - pass nextCursor back as cursor for the following page
+    @GetMapping("/all/page")
+    public ResponseEntity<?> getHelpingToolsPage(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<HelpingTool> page = helpingToolService.getHelpingToolsPage(cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    // Streaming NDJSON export for analytics - optional userId and createdAt date range (inclusive), optional gzip
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportHelpingTools(@RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        if (from != null && to != null && from.isAfter(to)) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "The from date must not be after the to date");
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, error));
+        }
+
+        return NdjsonResponses.ok("helping-tools", gzip, out -> exportService.exportHelpingTools(userId,
+                NdjsonResponses.startOfDay(from), NdjsonResponses.endExclusive(to), out));
+    }
 }
\ No newline at end of file
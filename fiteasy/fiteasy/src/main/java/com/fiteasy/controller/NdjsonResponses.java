@@ -0,0 +1,46 @@
+package com.fiteasy.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+// Response plumbing shared by the NDJSON export endpoints
+final class NdjsonResponses {
+
+    static final MediaType CONTENT_TYPE = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
+    private NdjsonResponses() {
+    }
+
+    // Export headers around the streamed rows, gzip-compressed when requested
+    static ResponseEntity<StreamingResponseBody> ok(String fileName, boolean gzip, StreamingResponseBody rows) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(CONTENT_TYPE)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + ".ndjson\"");
+        if (!gzip) {
+            return response.body(rows);
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> {
+            GZIPOutputStream body = new GZIPOutputStream(out, 8192);
+            rows.writeTo(body);
+            // Finish the gzip trailer without closing the servlet stream early
+            body.finish();
+            body.flush();
+        });
+    }
+
+    static LocalDateTime startOfDay(LocalDate date) {
+        return date != null ? date.atStartOfDay() : null;
+    }
+
+    // The "to" date is inclusive, so the range ends at the start of the following day
+    static LocalDateTime endExclusive(LocalDate date) {
+        return date != null ? date.plusDays(1).atStartOfDay() : null;
+    }
+}
@@ -1,8 +1,16 @@
 package com.fiteasy.controller;
 
 import com.fiteasy.model.User;
+import com.fiteasy.monitoring.SqlBudget;
+import com.fiteasy.security.SessionTokenFilter;
+import com.fiteasy.security.SessionTokenService;
+import com.fiteasy.service.PasswordHashingService;
 import com.fiteasy.service.UserService;
+import com.fiteasy.util.CursorPage;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,7 +28,12 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
     // SIGNUP PAGE - Register new user
+    // Conflict check, user insert, counter row; +2 when the id generator fetches its next block
+    @SqlBudget(7)
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@RequestBody Map<String, String> signupData) {
         try {
@@ -53,6 +66,8 @@ public class UserController {
             response.put("username", registeredUser.getUsername());
             return ResponseEntity.ok(response);
 
+        } catch (PasswordHashingService.SaturatedException e) {
+            return busy(e);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
@@ -61,6 +76,7 @@ public class UserController {
     }
 
     // LOGIN PAGE - Authenticate user
+    @SqlBudget(2)
     @PostMapping("/login")
     public ResponseEntity<?> loginUser(@RequestBody Map<String, String> loginData) {
         try {
@@ -78,8 +94,10 @@ public class UserController {
 
             if (user.isPresent()) {
                 Map<String, Object> response = new HashMap<>();
+                SessionTokenService.IssuedToken token = sessionTokenService.issue(user.get().getId());
                 response.put("userId", user.get().getId());
-                response.put("token", "fiteasy-token-" + user.get().getId());
+                response.put("token", token.token());
+                response.put("expiresAt", token.expiresAt().toString());
                 response.put("username", user.get().getUsername());
                 response.put("message", "Login successful");
                 return ResponseEntity.ok(response);
@@ -89,6 +107,8 @@ public class UserController {
                 return ResponseEntity.badRequest().body(error);
             }
 
+        } catch (PasswordHashingService.SaturatedException e) {
+            return busy(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Login failed: " + e.getMessage());
@@ -97,6 +117,7 @@ public class UserController {
     }
 
     // USER DETAILS PAGE - Get user by ID
+    @SqlBudget(1)
     @GetMapping("/{id}")
     public ResponseEntity<?> getUserById(@PathVariable Long id) {
         try {
@@ -147,6 +168,8 @@ public class UserController {
     }
 
     // DASHBOARD - Get counts for dashboard
+    // Counter row, or the aggregate query for users without one
+    @SqlBudget(2)
     @GetMapping("/{id}/counts")
     public ResponseEntity<?> getUserCounts(@PathVariable Long id) {
         try {
@@ -162,6 +185,7 @@ public class UserController {
 
 
     // Check username availability (for signup validation)
+    @SqlBudget(1)
     @GetMapping("/check-username/{username}")
     public ResponseEntity<Map<String, Boolean>> checkUsername(@PathVariable String username) {
         boolean exists = userService.usernameExists(username);
@@ -171,6 +195,7 @@ public class UserController {
     }
 
     // Check email availability (for signup validation)
+    @SqlBudget(1)
     @GetMapping("/check-email/{email}")
     public ResponseEntity<Map<String, Boolean>> checkEmail(@PathVariable String email) {
         boolean exists = userService.emailExists(email);
@@ -179,9 +204,13 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
-    // Logout endpoint
+    // Logout endpoint - revokes the session token until it would have expired
     @PostMapping("/logout")
-    public ResponseEntity<?> logoutUser() {
+    public ResponseEntity<?> logoutUser(HttpServletRequest request) {
+        String token = SessionTokenFilter.bearerToken(request);
+        if (token != null) {
+            sessionTokenService.revoke(token);
+        }
         Map<String, String> response = new HashMap<>();
         response.put("message", "Logout successful");
         return ResponseEntity.ok(response);
@@ -199,4 +228,25 @@ public class UserController {
             return ResponseEntity.badRequest().body(error);
         }
     }
-}
\ No newline at end of file
+
+    // Keyset paginated user listing (admin) - pass nextCursor back as cursor for the following page
+    @GetMapping("/all/page")
+    public ResponseEntity<?> getUsersPage(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<User> page = userService.getUsersPage(cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    // 503 with Retry-After when the password hashing pool is saturated
+    private ResponseEntity<Map<String, String>> busy(PasswordHashingService.SaturatedException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(error);
+    }
+}
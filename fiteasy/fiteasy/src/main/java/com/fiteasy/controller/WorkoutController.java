@@ -1,12 +1,32 @@
 package com.fiteasy.controller;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fiteasy.model.WorkoutPlan;
+import com.fiteasy.monitoring.SqlBudget;
+import com.fiteasy.repository.WorkoutPlanSummary;
+import com.fiteasy.service.BmiBatchService;
+import com.fiteasy.service.ExportService;
+import com.fiteasy.service.WorkoutPlanImportService;
 import com.fiteasy.service.WorkoutPlanService;
+import com.fiteasy.util.CursorPage;
+import com.fiteasy.util.SearchPage;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,10 +37,28 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:3000")
 public class WorkoutController {
 
+    public static final String NEXT_PAGE_HEADER = "X-Next-Page";
+
+    private static final String SUMMARY_VIEW = "summary";
+
     @Autowired
     private WorkoutPlanService workoutPlanService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private BmiBatchService bmiBatchService;
+
+    @Autowired
+    private WorkoutPlanImportService workoutPlanImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     //  Create new workout plan with BMI calculation
+    // User check, insert, counter update; +2 when the id generator fetches its next block
+    @SqlBudget(5)
     @PostMapping
     public ResponseEntity<?> createWorkoutPlan(@RequestBody WorkoutPlan workoutPlan) {
         try {
@@ -42,14 +80,41 @@ public class WorkoutController {
         }
     }
 
+    // Bulk import - JSON array of workout plans; responds with a per-row error report
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importWorkoutPlans(HttpServletRequest request) throws IOException {
+        try {
+            return ResponseEntity.ok(workoutPlanImportService.importJson(request.getInputStream()));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    // Bulk import - CSV with a header row (userId,height,weight,trainer,gymName,workOut,...)
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<?> importWorkoutPlansCsv(HttpServletRequest request) throws IOException {
+        try {
+            return ResponseEntity.ok(workoutPlanImportService.importCsv(
+                    new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     //  Get all workout plans for user
+    @SqlBudget(1)
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<WorkoutPlan>> getWorkoutPlansByUserId(@PathVariable Long userId) {
-        List<WorkoutPlan> plans = workoutPlanService.getWorkoutPlansByUserId(userId);
+    public ResponseEntity<List<WorkoutPlanSummary>> getWorkoutPlansByUserId(@PathVariable Long userId) {
+        List<WorkoutPlanSummary> plans = workoutPlanService.getWorkoutPlansByUserId(userId);
         return ResponseEntity.ok(plans);
     }
 
     // Get specific workout plan by ID
+    @SqlBudget(1)
     @GetMapping("/{id}")
     public ResponseEntity<?> getWorkoutPlanById(@PathVariable Long id) {
         try {
@@ -168,7 +233,37 @@ public class WorkoutController {
         }
     }
 
+    // Batch BMI calculator - JSON array of {id, height, weight} in, JSON array of results out, in input order.
+    // The body is checked up to its opening bracket here; the rows are read and answered as the response streams
+    @SqlBudget(0)
+    @PostMapping(value = "/calculate-bmi/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> calculateBMIBatch(HttpServletRequest request) throws IOException {
+        JsonParser measurements;
+        try {
+            measurements = bmiBatchService.openJson(request.getInputStream());
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, error));
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(out -> bmiBatchService.calculateJson(measurements, out));
+    }
+
+    // Batch BMI calculator - CSV of height,weight or id,height,weight (optional header) in, CSV of results out
+    @SqlBudget(0)
+    @PostMapping(value = "/calculate-bmi/batch", consumes = "text/csv")
+    public ResponseEntity<StreamingResponseBody> calculateBMIBatchCsv(HttpServletRequest request) {
+        return ResponseEntity.ok().contentType(new MediaType("text", "csv", StandardCharsets.UTF_8)).body(out -> {
+            Writer body = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+            bmiBatchService.calculateCsv(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8), body);
+            body.flush();
+        });
+    }
+
     //  Get workout plan count for dashboard
+    @SqlBudget(1)
     @GetMapping("/count/user/{userId}")
     public ResponseEntity<Map<String, Long>> getWorkoutPlanCount(@PathVariable Long userId) {
         try {
@@ -184,6 +279,7 @@ public class WorkoutController {
     }
 
     //  Get BMI results count for dashboard
+    @SqlBudget(1)
     @GetMapping("/bmi-count/user/{userId}")
     public ResponseEntity<Map<String, Long>> getBMIResultsCount(@PathVariable Long userId) {
         try {
@@ -199,6 +295,7 @@ public class WorkoutController {
     }
 
     // Get latest workout plan for user
+    @SqlBudget(1)
     @GetMapping("/latest/user/{userId}")
     public ResponseEntity<?> getLatestWorkoutPlan(@PathVariable Long userId) {
         try {
@@ -239,23 +336,78 @@ public class WorkoutController {
         }
     }
 
+    // Keyset paginated admin listing - pass nextCursor back as cursor for the following page
+    @GetMapping("/all/page")
+    public ResponseEntity<?> getWorkoutPlansPage(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<WorkoutPlan> page = workoutPlanService.getWorkoutPlansPage(cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    // Streaming NDJSON export for analytics - optional userId and createdAt date range (inclusive), optional gzip
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportWorkoutPlans(@RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        if (from != null && to != null && from.isAfter(to)) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "The from date must not be after the to date");
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, error));
+        }
+
+        return NdjsonResponses.ok("workout-plans", gzip, out -> exportService.exportWorkoutPlans(userId,
+                NdjsonResponses.startOfDay(from), NdjsonResponses.endExclusive(to), out));
+    }
+
+    // Trainer and gym searches: case-insensitive substring matches, plus typo-tolerant ones with fuzzy=true.
+    // Results are paged - at most size per request (default 50, max 500). When more match, the
+    // X-Next-Page header holds the page number to request next; it is absent on the last page.
+    // view=summary returns WorkoutPlanSummary rows (workOut cut to a preview) instead of full plans
+    @SqlBudget(1)
     @GetMapping("/search/trainer/{trainerName}")
-    public ResponseEntity<List<WorkoutPlan>> getWorkoutPlansByTrainer(@PathVariable String trainerName) {
+    public ResponseEntity<?> getWorkoutPlansByTrainer(@PathVariable String trainerName,
+                                                      @RequestParam(defaultValue = "false") boolean fuzzy,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(required = false) Integer size,
+                                                      @RequestParam(defaultValue = "full") String view) {
         try {
-            List<WorkoutPlan> plans = workoutPlanService.getWorkoutPlansByTrainer(trainerName);
-            return ResponseEntity.ok(plans);
+            return SUMMARY_VIEW.equals(view)
+                    ? searchResponse(workoutPlanService.getWorkoutPlanSummariesByTrainer(trainerName, fuzzy, page, size))
+                    : searchResponse(workoutPlanService.getWorkoutPlansByTrainer(trainerName, fuzzy, page, size));
         } catch (Exception e) {
             return ResponseEntity.ok(List.of()); // Return empty list on error
         }
     }
 
+    @SqlBudget(1)
     @GetMapping("/search/gym/{gymName}")
-    public ResponseEntity<List<WorkoutPlan>> getWorkoutPlansByGym(@PathVariable String gymName) {
+    public ResponseEntity<?> getWorkoutPlansByGym(@PathVariable String gymName,
+                                                  @RequestParam(defaultValue = "false") boolean fuzzy,
+                                                  @RequestParam(defaultValue = "0") int page,
+                                                  @RequestParam(required = false) Integer size,
+                                                  @RequestParam(defaultValue = "full") String view) {
         try {
-            List<WorkoutPlan> plans = workoutPlanService.getWorkoutPlansByGym(gymName);
-            return ResponseEntity.ok(plans);
+            return SUMMARY_VIEW.equals(view)
+                    ? searchResponse(workoutPlanService.getWorkoutPlanSummariesByGym(gymName, fuzzy, page, size))
+                    : searchResponse(workoutPlanService.getWorkoutPlansByGym(gymName, fuzzy, page, size));
         } catch (Exception e) {
             return ResponseEntity.ok(List.of()); // Return empty list on error
         }
     }
+
+    private static <T> ResponseEntity<List<T>> searchResponse(SearchPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextPage() != null) {
+            response.header(NEXT_PAGE_HEADER, String.valueOf(page.nextPage()));
+        }
+        return response.body(page.items());
+    }
 }
\ No newline at end of file
@@ -4,11 +4,17 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "helping_tools")
+@Table(name = "helping_tools", indexes = {
+        // Per-user and per-user-and-type lookups, ordered by type then newest first
+        @Index(name = "idx_helping_tools_user_type_created", columnList = "user_id, type, created_at")
+})
 public class HelpingTool {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGenerators.HELPING_TOOLS)
+    @TableGenerator(name = IdGenerators.HELPING_TOOLS, table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = IdGenerators.HELPING_TOOLS, allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -0,0 +1,24 @@
+package com.fiteasy.model;
+
+/**
+ * Table-backed pooled id generation shared by the entities. Hibernate reserves
+ * ALLOCATION_SIZE ids per round trip to the generator table and hands them out
+ * from memory, so inserts can be JDBC-batched (IDENTITY forces one INSERT per
+ * round trip to learn each id). Works on MySQL, which has no sequences.
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generators";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+
+    // Matches hibernate.jdbc.batch_size, so one allocation covers one batch
+    public static final int ALLOCATION_SIZE = 50;
+
+    public static final String USERS = "users";
+    public static final String WORKOUT_PLANS = "workout_plans";
+    public static final String HELPING_TOOLS = "helping_tools";
+
+    private IdGenerators() {
+    }
+}
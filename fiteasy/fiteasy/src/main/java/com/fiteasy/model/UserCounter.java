@@ -0,0 +1,77 @@
+package com.fiteasy.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_counters")
+public class UserCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "workout_plans", nullable = false)
+    private long workoutPlans;
+
+    @Column(name = "bmi_results", nullable = false)
+    private long bmiResults;
+
+    @Column(name = "youtube_tools", nullable = false)
+    private long youtubeTools;
+
+    @Column(name = "equipment_tools", nullable = false)
+    private long equipmentTools;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public UserCounter() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public UserCounter(Long userId) {
+        this();
+        this.userId = userId;
+    }
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public long getWorkoutPlans() { return workoutPlans; }
+    public void setWorkoutPlans(long workoutPlans) { this.workoutPlans = workoutPlans; }
+
+    public long getBmiResults() { return bmiResults; }
+    public void setBmiResults(long bmiResults) { this.bmiResults = bmiResults; }
+
+    public long getYoutubeTools() { return youtubeTools; }
+    public void setYoutubeTools(long youtubeTools) { this.youtubeTools = youtubeTools; }
+
+    public long getEquipmentTools() { return equipmentTools; }
+    public void setEquipmentTools(long equipmentTools) { this.equipmentTools = equipmentTools; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public long getHelpingTools() {
+        return youtubeTools + equipmentTools;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @Override
+    public String toString() {
+        return "UserCounter{" +
+                "userId=" + userId +
+                ", workoutPlans=" + workoutPlans +
+                ", bmiResults=" + bmiResults +
+                ", youtubeTools=" + youtubeTools +
+                ", equipmentTools=" + equipmentTools +
+                '}';
+    }
+}
@@ -7,11 +7,18 @@ import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 @Entity
-@Table(name = "workout_plans")
+@Table(name = "workout_plans", indexes = {
+        // Per-user listings, newest first, and the BMI history (bmi_data IS NOT NULL)
+        @Index(name = "idx_workout_plans_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_workout_plans_user_bmi", columnList = "user_id, bmi_data")
+})
 public class WorkoutPlan {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGenerators.WORKOUT_PLANS)
+    @TableGenerator(name = IdGenerators.WORKOUT_PLANS, table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = IdGenerators.WORKOUT_PLANS, allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
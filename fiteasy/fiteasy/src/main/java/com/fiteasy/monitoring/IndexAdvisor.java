@@ -0,0 +1,253 @@
+package com.fiteasy.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * EXPLAINs every read query declared on the Spring Data repositories and
+ * flags the ones that scan a whole table. Each query method is called with
+ * sample arguments while {@link QueryCapture} is active, so the SQL Hibernate
+ * generates (with its bind values) is captured but never executed; only the
+ * EXPLAIN runs. Logged at startup when app.index-advisor.run-on-startup is
+ * set. Each read EXPLAINs every query on the primary, so /actuator/indexadvisor
+ * is only exposed in the dev profile.
+ */
+@Component
+@Endpoint(id = "indexadvisor")
+public class IndexAdvisor {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexAdvisor.class);
+
+    // H2 prints e.g. "/* PUBLIC.WORKOUT_PLANS.tableScan */" for a full scan
+    private static final Pattern H2_TABLE_SCAN = Pattern.compile("(\\w+)\\.tableScan");
+
+    private static final Object UNSUPPORTED = new Object();
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Repository.method names whose full scan is expected, e.g. substring searches
+    @Value("${app.index-advisor.allowed-full-scans:}")
+    private Set<String> allowedFullScans = Set.of();
+
+    @Value("${app.index-advisor.run-on-startup:false}")
+    private boolean runOnStartup;
+
+    public enum Status { INDEXED, FULL_SCAN, ALLOWED_FULL_SCAN, SKIPPED, ERROR }
+
+    public record QueryPlan(String query, Status status, List<String> fullScans, String sql, String plan) {
+    }
+
+    public record Report(LocalDateTime generatedAt, long checked, long fullScans, List<QueryPlan> queries) {
+    }
+
+    @ReadOperation
+    public Report report() {
+        Repositories repositories = new Repositories(applicationContext);
+        List<QueryPlan> plans = new ArrayList<>();
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+            String repositoryName = information.getRepositoryInterface().getSimpleName();
+            for (Method method : information.getQueryMethods()) {
+                plans.add(check(repositoryName + "." + method.getName(), repository, method));
+            }
+        }
+        plans.sort(Comparator.comparing(QueryPlan::query));
+
+        long checked = plans.stream().filter(plan -> plan.status() != Status.SKIPPED && plan.status() != Status.ERROR).count();
+        long fullScans = plans.stream().filter(plan -> plan.status() == Status.FULL_SCAN).count();
+        return new Report(LocalDateTime.now(), checked, fullScans, plans);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportOnStartup() {
+        if (!runOnStartup) {
+            return;
+        }
+        Report report = report();
+        for (QueryPlan plan : report.queries()) {
+            if (plan.status() == Status.FULL_SCAN) {
+                log.warn("Full table scan of {} in {}: {}", plan.fullScans(), plan.query(), plan.sql());
+            } else if (plan.status() == Status.ERROR) {
+                log.warn("Could not EXPLAIN {}: {}", plan.query(), plan.plan());
+            }
+        }
+        log.info("Index advisor checked {} repository queries, {} unexpected full scans", report.checked(), report.fullScans());
+    }
+
+    private QueryPlan check(String name, Object repository, Method method) {
+        if (method.isAnnotationPresent(Modifying.class) || method.getName().startsWith("delete")
+                || method.getName().startsWith("remove")) {
+            return new QueryPlan(name, Status.SKIPPED, List.of(), null, "Modifying query");
+        }
+        Object[] args = new Object[method.getParameterCount()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = sample(method.getParameterTypes()[i], method.getGenericParameterTypes()[i]);
+            if (args[i] == UNSUPPORTED) {
+                return new QueryPlan(name, Status.SKIPPED, List.of(), null,
+                        "No sample value for " + method.getParameterTypes()[i].getSimpleName());
+            }
+        }
+
+        List<QueryCapture.CapturedQuery> captured;
+        try {
+            captured = capture(repository, method, args);
+        } catch (RuntimeException e) {
+            return new QueryPlan(name, Status.ERROR, List.of(), null, e.getMessage());
+        }
+        if (captured.isEmpty()) {
+            return new QueryPlan(name, Status.SKIPPED, List.of(), null, "No SQL was issued");
+        }
+
+        QueryCapture.CapturedQuery query = captured.get(0);
+        try {
+            Explained explained = explain(query);
+            Status status = explained.fullScans().isEmpty() ? Status.INDEXED
+                    : allowedFullScans.contains(name) ? Status.ALLOWED_FULL_SCAN : Status.FULL_SCAN;
+            return new QueryPlan(name, status, explained.fullScans(), query.sql(), explained.plan());
+        } catch (SQLException e) {
+            return new QueryPlan(name, Status.ERROR, List.of(), query.sql(), e.getMessage());
+        }
+    }
+
+    // Calls the repository method in a read-only transaction that is always rolled back
+    private List<QueryCapture.CapturedQuery> capture(Object repository, Method method, Object[] args) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> {
+            status.setRollbackOnly();
+            return QueryCapture.capture(() -> {
+                try {
+                    method.invoke(repository, args);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+                }
+            });
+        });
+    }
+
+    private record Explained(List<String> fullScans, String plan) {
+    }
+
+    private Explained explain(QueryCapture.CapturedQuery query) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.sql())) {
+            query.bind(statement);
+            try (ResultSet rows = statement.executeQuery()) {
+                ResultSetMetaData metaData = rows.getMetaData();
+                int typeColumn = column(metaData, "type");
+                List<String> fullScans = new ArrayList<>();
+                List<String> plan = new ArrayList<>();
+                while (rows.next()) {
+                    if (typeColumn > 0) {
+                        // MySQL: one row per table; access type ALL is a full table scan
+                        String table = rows.getString(column(metaData, "table"));
+                        String type = rows.getString(typeColumn);
+                        plan.add(table + ": " + type + " (key " + rows.getString(column(metaData, "key")) + ")");
+                        if ("ALL".equalsIgnoreCase(type)) {
+                            fullScans.add(table);
+                        }
+                    } else {
+                        String text = rows.getString(1);
+                        plan.add(text);
+                        Matcher tableScan = H2_TABLE_SCAN.matcher(text);
+                        while (tableScan.find()) {
+                            fullScans.add(tableScan.group(1).toLowerCase(Locale.ROOT));
+                        }
+                    }
+                }
+                return new Explained(List.copyOf(fullScans), String.join("\n", plan));
+            }
+        }
+    }
+
+    private static int column(ResultSetMetaData metaData, String label) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (metaData.getColumnLabel(i).equalsIgnoreCase(label)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    // A value of the parameter's type; the values only need to produce a representative plan
+    private static Object sample(Class<?> type, Type genericType) {
+        if (type == Long.class || type == long.class) {
+            return 1L;
+        } else if (type == Integer.class || type == int.class) {
+            return 1;
+        } else if (type == String.class) {
+            return "index-advisor";
+        } else if (type == Boolean.class || type == boolean.class) {
+            return true;
+        } else if (type == BigDecimal.class) {
+            return BigDecimal.ONE;
+        } else if (type == LocalDateTime.class) {
+            return LocalDateTime.now();
+        } else if (type == LocalDate.class) {
+            return LocalDate.now();
+        } else if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        } else if (type == Limit.class) {
+            return Limit.of(10);
+        } else if (type == Pageable.class) {
+            return PageRequest.of(0, 10);
+        } else if (type == Sort.class) {
+            return Sort.unsorted();
+        } else if (Collection.class.isAssignableFrom(type)
+                && genericType instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments()[0] instanceof Class<?> elementType) {
+            Object element = sample(elementType, elementType);
+            return element == UNSUPPORTED ? UNSUPPORTED : List.of(element);
+        }
+        return UNSUPPORTED;
+    }
+}
@@ -0,0 +1,95 @@
+package com.fiteasy.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Captures the SQL and bind values of the first statement an action sends to
+ * the database, without running it: while capturing, the datasource-proxy
+ * listener records the statement and aborts its execution.
+ */
+public final class QueryCapture {
+
+    private static final ThreadLocal<List<CapturedQuery>> CAPTURED = new ThreadLocal<>();
+
+    private QueryCapture() {
+    }
+
+    public record CapturedQuery(String sql, List<ParameterSetOperation> parameters) {
+
+        // Replays the original setXxx calls on another statement, e.g. an EXPLAIN of the same SQL
+        public void bind(PreparedStatement statement) throws SQLException {
+            for (ParameterSetOperation parameter : parameters) {
+                try {
+                    parameter.getMethod().invoke(statement, parameter.getArgs());
+                } catch (IllegalAccessException e) {
+                    throw new SQLException("Cannot bind " + parameter.getMethod().getName(), e);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause() instanceof SQLException sqlException
+                            ? sqlException : new SQLException(e.getCause());
+                }
+            }
+        }
+    }
+
+    // Runs the action on this thread and returns the statement it tried to execute, if any
+    public static List<CapturedQuery> capture(Runnable action) {
+        List<CapturedQuery> captured = new ArrayList<>();
+        CAPTURED.set(captured);
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            if (!isCaptureAbort(e)) {
+                throw e;
+            }
+        } finally {
+            CAPTURED.remove();
+        }
+        return captured;
+    }
+
+    private static boolean isCaptureAbort(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof StatementCaptured) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static class Listener implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            List<CapturedQuery> captured = CAPTURED.get();
+            if (captured == null) {
+                return;
+            }
+            for (QueryInfo query : queryInfoList) {
+                List<List<ParameterSetOperation>> parameters = query.getParametersList();
+                captured.add(new CapturedQuery(query.getQuery(),
+                        parameters.isEmpty() ? List.of() : List.copyOf(parameters.get(0))));
+            }
+            throw new StatementCaptured();
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+    }
+
+    // Aborts the captured statement; carries no stack trace
+    private static final class StatementCaptured extends RuntimeException {
+        StatementCaptured() {
+            super("Statement captured, not executed", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.fiteasy.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Counts the SQL statements each API request executes. The count is sent as
+ * the X-SQL-Statements header and recorded in the app.sql.statements
+ * histogram per endpoint. Endpoints annotated with {@link SqlBudget} are
+ * checked against their budget: app.sql.budget.mode=log warns, fail throws
+ * before the body is written (used by the integration tests), off skips it.
+ * A StreamingResponseBody is checked by {@link SqlBudgetStreamingHandler};
+ * statements run while it is written are recorded but miss the header, which
+ * has been sent by then.
+ */
+@ControllerAdvice
+public class SqlBudgetInterceptor implements AsyncHandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetInterceptor.class);
+
+    public static final String HEADER = "X-SQL-Statements";
+
+    // Count carried from a streamed body's writer thread to the request's async dispatch
+    private static final String STREAMED_COUNT = SqlBudgetInterceptor.class.getName() + ".STREAMED_COUNT";
+
+    public enum Mode { OFF, LOG, FAIL }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.sql.budget.mode:log}")
+    private Mode mode = Mode.LOG;
+
+    public static class BudgetExceededException extends RuntimeException {
+        public BudgetExceededException(String message) {
+            super(message);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            SqlStatementCounter.start(request.getAttribute(STREAMED_COUNT) instanceof Integer streamed ? streamed : 0);
+        }
+        return true;
+    }
+
+    // The first dispatch of a streamed request ends here; its statements travel with the streamed body
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            SqlStatementCounter.stop();
+        }
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    // Last point before the body is serialized - the handler has run all its statements
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        int count = SqlStatementCounter.current();
+        if (count < 0) {
+            return body;
+        }
+        response.getHeaders().set(HEADER, Integer.toString(count));
+        checkBudget(returnType, count);
+        return body;
+    }
+
+    // Streamed bodies skip ResponseBodyAdvice - called by SqlBudgetStreamingHandler before the headers are sent.
+    // The returned body counts the statements it runs on the writer thread and hands the total to the async dispatch
+    public StreamingResponseBody beforeStreaming(StreamingResponseBody body, MethodParameter returnType,
+                                                 HttpServletRequest request, HttpServletResponse response) {
+        int count = SqlStatementCounter.current();
+        if (count < 0) {
+            return body;
+        }
+        response.setHeader(HEADER, Integer.toString(count));
+        checkBudget(returnType, count);
+        return out -> {
+            SqlStatementCounter.start(count);
+            try {
+                body.writeTo(out);
+            } finally {
+                request.setAttribute(STREAMED_COUNT, SqlStatementCounter.stop());
+            }
+        };
+    }
+
+    private void checkBudget(MethodParameter returnType, int count) {
+        SqlBudget budget = returnType.getMethodAnnotation(SqlBudget.class);
+        if (mode == Mode.FAIL && budget != null && count > budget.value()) {
+            throw new BudgetExceededException(returnType.getExecutable().getName() + " executed " + count
+                    + " SQL statements, budget is " + budget.value());
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return;
+        }
+        int count = SqlStatementCounter.stop();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("app.sql.statements")
+                .description("SQL statements executed per API request")
+                .baseUnit("statements")
+                .tags("method", request.getMethod(), "uri", uri)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1000.0)
+                .register(meterRegistry)
+                .record(count);
+
+        SqlBudget budget = method.getMethodAnnotation(SqlBudget.class);
+        if (mode != Mode.OFF && budget != null && count > budget.value()) {
+            Counter.builder("app.sql.budget.exceeded")
+                    .description("API requests that executed more SQL statements than their budget")
+                    .tags("method", request.getMethod(), "uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("{} {} executed {} SQL statements, budget is {}", request.getMethod(), uri, count, budget.value());
+        }
+    }
+}
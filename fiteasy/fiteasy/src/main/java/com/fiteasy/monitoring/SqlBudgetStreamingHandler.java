@@ -0,0 +1,49 @@
+package com.fiteasy.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Wraps the StreamingResponseBody return value handler so streamed responses
+ * get the X-SQL-Statements header and the {@link SqlBudget} check. They are
+ * written by the handler rather than a message converter, so the
+ * ResponseBodyAdvice side of {@link SqlBudgetInterceptor} never sees them.
+ */
+public class SqlBudgetStreamingHandler implements HandlerMethodReturnValueHandler {
+
+    private final HandlerMethodReturnValueHandler delegate;
+
+    private final SqlBudgetInterceptor sqlBudgetInterceptor;
+
+    public SqlBudgetStreamingHandler(HandlerMethodReturnValueHandler delegate, SqlBudgetInterceptor sqlBudgetInterceptor) {
+        this.delegate = delegate;
+        this.sqlBudgetInterceptor = sqlBudgetInterceptor;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return delegate.supportsReturnType(returnType);
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest) throws Exception {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
+        if (request != null && response != null) {
+            if (returnValue instanceof ResponseEntity<?> entity && entity.getBody() instanceof StreamingResponseBody body) {
+                returnValue = new ResponseEntity<>(sqlBudgetInterceptor.beforeStreaming(body, returnType, request, response),
+                        entity.getHeaders(), entity.getStatusCode());
+            } else if (returnValue instanceof StreamingResponseBody body) {
+                returnValue = sqlBudgetInterceptor.beforeStreaming(body, returnType, request, response);
+            }
+        }
+        delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+    }
+}
@@ -0,0 +1,48 @@
+package com.fiteasy.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs JDBC statements with their bind values: every statement at or above the
+ * slow threshold at WARN, and a random sample of the rest at INFO. Replaces the
+ * Hibernate SQL/binder loggers outside the dev profile. logback-spring.xml sends
+ * this logger to an async appender, so the request thread only queues the line.
+ */
+public class SqlLogger implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlLogger.class);
+
+    private final DefaultQueryLogEntryCreator entryCreator = new DefaultQueryLogEntryCreator();
+    private final long slowThresholdMillis;
+    private final double sampleRate;
+
+    // A sample rate of 0 logs only slow statements, 1 logs every statement
+    public SqlLogger(Duration slowThreshold, double sampleRate) {
+        this.slowThresholdMillis = slowThreshold.toMillis();
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() >= slowThresholdMillis) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("Slow SQL: {}", entryCreator.getLogEntry(execInfo, queryInfoList, true, true, false));
+            }
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate && logger.isInfoEnabled()) {
+            logger.info("Sampled SQL: {}", entryCreator.getLogEntry(execInfo, queryInfoList, true, true, false));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.fiteasy.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Counts the JDBC statements executed on the current thread between start()
+ * and stop(). Fed by the datasource-proxy listener, so Hibernate, Spring Data
+ * and JdbcTemplate statements all count; a JDBC batch counts once.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static void start() {
+        start(0);
+    }
+
+    // Continues from an earlier count, e.g. one carried over from another thread
+    public static void start(int from) {
+        COUNT.set(new int[] {from});
+    }
+
+    // Statements so far, or -1 when this thread is not counting
+    public static int current() {
+        int[] count = COUNT.get();
+        return count == null ? -1 : count[0];
+    }
+
+    public static int stop() {
+        int count = current();
+        COUNT.remove();
+        return count;
+    }
+
+    public static class Listener implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            int[] count = COUNT.get();
+            if (count != null) {
+                count[0]++;
+            }
+        }
+    }
+}
@@ -1,13 +1,20 @@
 package com.fiteasy.repository;
 
 import com.fiteasy.model.HelpingTool;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface HelpingToolRepository extends JpaRepository<HelpingTool, Long> {
@@ -16,6 +23,22 @@ public interface HelpingToolRepository extends JpaRepository<HelpingTool, Long>
     List<HelpingTool> findByUserId(Long userId);
     List<HelpingTool> findByUserIdAndType(Long userId, HelpingTool.ToolType type);
 
+    // List and search rows without loading entities
+    String SUMMARY = "SELECT new com.fiteasy.repository.HelpingToolSummary(h.id, h.userId, h.type, h.url, " +
+            "h.description, h.createdAt) FROM HelpingTool h ";
+
+    @Query(SUMMARY + "WHERE h.userId = :userId")
+    List<HelpingToolSummary> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Query(SUMMARY + "WHERE h.userId = :userId AND h.type = :type")
+    List<HelpingToolSummary> findSummariesByUserIdAndType(@Param("userId") Long userId, @Param("type") HelpingTool.ToolType type);
+
+    @Query(SUMMARY + "WHERE h.id IN :ids")
+    List<HelpingToolSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset pagination for admin listings
+    List<HelpingTool> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
     // Dashboard counts
     long countByUserId(Long userId);
     long countByUserIdAndType(Long userId, HelpingTool.ToolType type);
@@ -34,7 +57,32 @@ public interface HelpingToolRepository extends JpaRepository<HelpingTool, Long>
     @Modifying
     @Transactional
     @Query("DELETE FROM HelpingTool h WHERE h.userId = :userId AND h.type = :type")
-    void deleteByUserIdAndType(@Param("userId") Long userId, @Param("type") HelpingTool.ToolType type);
+    int deleteByUserIdAndType(@Param("userId") Long userId, @Param("type") HelpingTool.ToolType type);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM HelpingTool h WHERE h.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Ids and owners only, so set-based deletes can update counters and the search index without loading entities
+    @Query("SELECT h.id FROM HelpingTool h WHERE h.userId = :userId AND h.type = :type")
+    List<Long> findIdsByUserIdAndType(@Param("userId") Long userId, @Param("type") HelpingTool.ToolType type);
+
+    @Query("SELECT h.id AS id, h.userId AS userId, h.type AS type FROM HelpingTool h WHERE h.id IN :ids")
+    List<ToolOwner> findOwnersByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Purge of a deleted user, one bounded chunk at a time
+    @Query("SELECT h.id FROM HelpingTool h WHERE h.userId = :userId ORDER BY h.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Limit limit);
+
+    // Orphan sweep - keyset walk over ids, then an anti-join against users within the walked range
+    @Query("SELECT h.id FROM HelpingTool h WHERE h.id > :afterId ORDER BY h.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Native so soft-deleted users still count as existing - their tools are left to UserPurger
+    @Query(value = "SELECT h.id AS id, h.user_id AS userId, h.type AS type FROM helping_tools h WHERE h.id > :afterId AND h.id <= :upToId " +
+           "AND NOT EXISTS (SELECT 1 FROM users u WHERE u.id = h.user_id)", nativeQuery = true)
+    List<ToolOwner> findOrphansInRange(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
 
     // Custom queries
     @Query("SELECT h FROM HelpingTool h WHERE h.userId = :userId ORDER BY h.type, h.createdAt DESC")
@@ -42,4 +90,29 @@ public interface HelpingToolRepository extends JpaRepository<HelpingTool, Long>
 
     @Query("SELECT h FROM HelpingTool h WHERE h.url LIKE %:keyword% OR h.description LIKE %:keyword%")
     List<HelpingTool> searchByKeyword(@Param("keyword") String keyword);
+
+    // Export - forward-only cursor, rows are fetched from the driver in batches
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT h FROM HelpingTool h WHERE (:userId IS NULL OR h.userId = :userId) " +
+           "AND (:from IS NULL OR h.createdAt >= :from) AND (:to IS NULL OR h.createdAt < :to) ORDER BY h.id")
+    Stream<HelpingTool> streamForExport(@Param("userId") Long userId,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
+
+    // Counter reconciliation - tool counts by type for a chunk of users
+    @Query("SELECT h.userId AS userId, h.type AS type, COUNT(h) AS total " +
+           "FROM HelpingTool h WHERE h.userId IN :userIds GROUP BY h.userId, h.type")
+    List<UserToolCounts> countByUserIdsAndType(@Param("userIds") Collection<Long> userIds);
+
+    interface ToolOwner {
+        Long getId();
+        Long getUserId();
+        HelpingTool.ToolType getType();
+    }
+
+    interface UserToolCounts {
+        Long getUserId();
+        HelpingTool.ToolType getType();
+        Long getTotal();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.fiteasy.repository;
+
+import com.fiteasy.model.HelpingTool;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of the per-user tool lists and the url/description search, read with a
+ * constructor expression so no managed entity or dirty-checking snapshot is kept.
+ * The url stays complete - the list links to it.
+ */
+public record HelpingToolSummary(
+        Long id,
+        Long userId,
+        HelpingTool.ToolType type,
+        String url,
+        String description,
+        LocalDateTime createdAt) {
+
+    public static HelpingToolSummary of(HelpingTool tool) {
+        return new HelpingToolSummary(tool.getId(), tool.getUserId(), tool.getType(), tool.getUrl(),
+                tool.getDescription(), tool.getCreatedAt());
+    }
+}
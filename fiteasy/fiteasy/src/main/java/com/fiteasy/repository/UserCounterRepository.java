@@ -0,0 +1,63 @@
+package com.fiteasy.repository;
+
+import com.fiteasy.model.HelpingTool;
+import com.fiteasy.model.UserCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserCounterRepository extends JpaRepository<UserCounter, Long> {
+
+    // Incremental maintenance - returns 0 when the user has no counter row yet
+    @Modifying
+    @Query("UPDATE UserCounter c SET c.workoutPlans = c.workoutPlans + :workoutPlans, " +
+           "c.bmiResults = c.bmiResults + :bmiResults, " +
+           "c.youtubeTools = c.youtubeTools + :youtubeTools, " +
+           "c.equipmentTools = c.equipmentTools + :equipmentTools, " +
+           "c.updatedAt = CURRENT_TIMESTAMP WHERE c.userId = :userId")
+    int adjustCounters(@Param("userId") Long userId,
+                       @Param("workoutPlans") long workoutPlans,
+                       @Param("bmiResults") long bmiResults,
+                       @Param("youtubeTools") long youtubeTools,
+                       @Param("equipmentTools") long equipmentTools);
+
+    @Modifying
+    @Query("UPDATE UserCounter c SET c.workoutPlans = 0, c.bmiResults = 0, c.updatedAt = CURRENT_TIMESTAMP WHERE c.userId = :userId")
+    int clearWorkoutPlans(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE UserCounter c SET c.youtubeTools = 0, c.equipmentTools = 0, c.updatedAt = CURRENT_TIMESTAMP WHERE c.userId = :userId")
+    int clearHelpingTools(@Param("userId") Long userId);
+
+    // Creates an empty row unless one exists - an upsert (INSERT ... ON DUPLICATE KEY on MySQL),
+    // so two transactions creating the same user's row never fail with a duplicate key
+    @Modifying
+    @Query("INSERT INTO UserCounter (userId, workoutPlans, bmiResults, youtubeTools, equipmentTools, updatedAt) " +
+           "VALUES (:userId, 0, 0, 0, 0, CURRENT_TIMESTAMP) ON CONFLICT (userId) DO UPDATE SET workoutPlans = workoutPlans")
+    void insertIfAbsent(@Param("userId") Long userId);
+
+    // Recounts one row from the source tables inside the UPDATE itself, so the counts are a current
+    // read taken under the row lock rather than the transaction's (possibly older) snapshot
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE UserCounter c SET " +
+           "c.workoutPlans = (SELECT COUNT(w) FROM WorkoutPlan w WHERE w.userId = :userId), " +
+           "c.bmiResults = (SELECT COUNT(w) FROM WorkoutPlan w WHERE w.userId = :userId AND w.bmiData IS NOT NULL), " +
+           "c.youtubeTools = (SELECT COUNT(h) FROM HelpingTool h WHERE h.userId = :userId AND h.type = :youtube), " +
+           "c.equipmentTools = (SELECT COUNT(h) FROM HelpingTool h WHERE h.userId = :userId AND h.type = :equipment), " +
+           "c.updatedAt = CURRENT_TIMESTAMP WHERE c.userId = :userId")
+    int recountCounters(@Param("userId") Long userId,
+                        @Param("youtube") HelpingTool.ToolType youtube,
+                        @Param("equipment") HelpingTool.ToolType equipment);
+
+    // Reconciliation - locks the chunk so concurrent increments wait for the rebuilt values
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM UserCounter c WHERE c.userId IN :userIds ORDER BY c.userId")
+    List<UserCounter> findAllForUpdate(@Param("userIds") Collection<Long> userIds);
+}
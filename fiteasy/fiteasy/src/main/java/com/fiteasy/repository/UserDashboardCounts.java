@@ -0,0 +1,18 @@
+package com.fiteasy.repository;
+
+/**
+ * Projection for the dashboard counts, read in a single aggregated query
+ * instead of one lookup per count.
+ */
+public interface UserDashboardCounts {
+
+    Integer getUserDetails();
+
+    Long getBmiResults();
+
+    Long getWorkoutPlans();
+
+    Long getYoutubeTools();
+
+    Long getEquipmentTools();
+}
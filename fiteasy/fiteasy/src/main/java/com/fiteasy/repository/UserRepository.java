@@ -1,12 +1,23 @@
 package com.fiteasy.repository;
 
+import com.fiteasy.model.HelpingTool;
 import com.fiteasy.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -14,12 +25,29 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Login functionality
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
-    Optional<User> findByUsernameAndPassword(String username, String password);
+
+    // Password hash upgrade on login; matching the old value lets a concurrent password change win
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id AND u.password = :current")
+    int updatePassword(@Param("id") Long id, @Param("current") String current, @Param("password") String password);
 
     // Signup validation
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
 
+    // Counter rebuilds - serializes creating a user's counter row; empty when the user does not exist
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
+
+    // Bulk import: which of these user ids exist, in one query
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Keyset pagination for admin listings
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
     // Search functionality
     List<User> findByNameContainingIgnoreCase(String name);
     List<User> findByUsernameContainingIgnoreCase(String username);
@@ -30,4 +58,64 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT COUNT(u) FROM User u WHERE u.name IS NOT NULL AND u.name != ''")
     long countUsersWithProfiles();
-}
\ No newline at end of file
+
+    // Dashboard counts - one round trip for profile, BMI, plan and helping tool counts
+    @Query("SELECT CASE WHEN u.name IS NOT NULL AND TRIM(u.name) <> '' THEN 1 ELSE 0 END AS userDetails, " +
+           "(SELECT COUNT(w) FROM WorkoutPlan w WHERE w.userId = u.id AND w.bmiData IS NOT NULL) AS bmiResults, " +
+           "(SELECT COUNT(w) FROM WorkoutPlan w WHERE w.userId = u.id) AS workoutPlans, " +
+           "(SELECT COUNT(h) FROM HelpingTool h WHERE h.userId = u.id AND h.type = :youtube) AS youtubeTools, " +
+           "(SELECT COUNT(h) FROM HelpingTool h WHERE h.userId = u.id AND h.type = :equipment) AS equipmentTools " +
+           "FROM User u WHERE u.id = :userId")
+    Optional<UserDashboardCounts> findDashboardCounts(@Param("userId") Long userId,
+                                                      @Param("youtube") HelpingTool.ToolType youtube,
+                                                      @Param("equipment") HelpingTool.ToolType equipment);
+
+    // Dashboard counts from the user_counters read model - primary key lookups only
+    @Query("SELECT CASE WHEN u.name IS NOT NULL AND TRIM(u.name) <> '' THEN 1 ELSE 0 END AS userDetails, " +
+           "c.bmiResults AS bmiResults, c.workoutPlans AS workoutPlans, " +
+           "c.youtubeTools AS youtubeTools, c.equipmentTools AS equipmentTools " +
+           "FROM User u JOIN UserCounter c ON c.userId = u.id WHERE u.id = :userId")
+    Optional<UserDashboardCounts> findDashboardCountsFromCounters(@Param("userId") Long userId);
+
+    // Keyset walk over user ids for batch jobs
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Users marked deleted whose data is still being purged - native, as the entity hides them
+    @Query(value = "SELECT id FROM users WHERE deleted_at IS NOT NULL ORDER BY id", nativeQuery = true)
+    List<Long> findDeletedIds();
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM users WHERE id = :id AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeDeleted(@Param("id") Long id);
+
+    // Registration uniqueness check in one round trip; both flags are null when nothing conflicts
+    @Query("SELECT MAX(CASE WHEN u.username = :username THEN 1 ELSE 0 END) AS usernameTaken, " +
+           "MAX(CASE WHEN u.email = :email THEN 1 ELSE 0 END) AS emailTaken " +
+           "FROM User u WHERE u.username = :username OR u.email = :email")
+    UniqueConflicts findUniqueConflicts(@Param("username") String username, @Param("email") String email);
+
+    interface UniqueConflicts {
+        Integer getUsernameTaken();
+        Integer getEmailTaken();
+
+        default boolean usernameTaken() {
+            return getUsernameTaken() != null && getUsernameTaken() == 1;
+        }
+
+        default boolean emailTaken() {
+            return getEmailTaken() != null && getEmailTaken() == 1;
+        }
+    }
+
+    // Every username and email, for building the availability filters
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.username AS username, u.email AS email FROM User u")
+    Stream<UserKeys> streamUsernamesAndEmails();
+
+    interface UserKeys {
+        String getUsername();
+        String getEmail();
+    }
+}
@@ -1,13 +1,20 @@
 package com.fiteasy.repository;
 
 import com.fiteasy.model.WorkoutPlan;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface WorkoutPlanRepository extends JpaRepository<WorkoutPlan, Long> {
@@ -16,6 +23,24 @@ public interface WorkoutPlanRepository extends JpaRepository<WorkoutPlan, Long>
     List<WorkoutPlan> findByUserId(Long userId);
     List<WorkoutPlan> findByUserIdOrderByCreatedAtDesc(Long userId);
 
+    // List and search rows without loading entities; the per-user list keeps the full workOut,
+    // the search summary view cuts it to a preview
+    String SUMMARY_FIELDS = "SELECT new com.fiteasy.repository.WorkoutPlanSummary(w.id, w.userId, w.bmiData, w.dateCreated, " +
+            "w.age, w.gender, w.height, w.weight, w.trainer, w.gymName, w.spentTimeInGym, ";
+    String SUMMARY = SUMMARY_FIELDS + "w.workOut, w.repsSets, w.createdAt) FROM WorkoutPlan w ";
+    String PREVIEW = SUMMARY_FIELDS +
+            "substring(w.workOut, 1, " + WorkoutPlanSummary.WORK_OUT_PREVIEW_LENGTH + "), w.repsSets, w.createdAt) " +
+            "FROM WorkoutPlan w ";
+
+    @Query(SUMMARY + "WHERE w.userId = :userId")
+    List<WorkoutPlanSummary> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Query(PREVIEW + "WHERE w.id IN :ids")
+    List<WorkoutPlanSummary> findPreviewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset pagination for admin listings
+    List<WorkoutPlan> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
     // Dashboard counts
     long countByUserId(Long userId);
     long countByUserIdAndBmiDataIsNotNull(Long userId);
@@ -34,10 +59,65 @@ public interface WorkoutPlanRepository extends JpaRepository<WorkoutPlan, Long>
     @Query("DELETE FROM WorkoutPlan w WHERE w.userId = :userId")
     void deleteByUserId(@Param("userId") Long userId);
 
+    // Purge of a deleted user, one bounded chunk at a time
+    @Query("SELECT w.id FROM WorkoutPlan w WHERE w.userId = :userId ORDER BY w.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM WorkoutPlan w WHERE w.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Orphan sweep - keyset walk over ids, then an anti-join against users within the walked range
+    @Query("SELECT w.id FROM WorkoutPlan w WHERE w.id > :afterId ORDER BY w.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Native so the users subquery is not filtered by User's @SQLRestriction: plans of a soft-deleted user
+    // are not orphans, UserPurger removes them
+    @Query(value = "SELECT w.id AS id, w.user_id AS userId FROM workout_plans w WHERE w.id > :afterId AND w.id <= :upToId " +
+           "AND NOT EXISTS (SELECT 1 FROM users u WHERE u.id = w.user_id)", nativeQuery = true)
+    List<PlanOwner> findOrphansInRange(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
     // Custom queries
     @Query("SELECT w FROM WorkoutPlan w WHERE w.userId = :userId AND w.bmiData IS NOT NULL ORDER BY w.createdAt DESC")
     List<WorkoutPlan> findLatestBMIResults(@Param("userId") Long userId);
 
     @Query("SELECT w FROM WorkoutPlan w WHERE w.userId = :userId AND w.age BETWEEN :minAge AND :maxAge")
     List<WorkoutPlan> findByUserIdAndAgeRange(@Param("userId") Long userId, @Param("minAge") Integer minAge, @Param("maxAge") Integer maxAge);
-}
\ No newline at end of file
+
+    // Export - forward-only cursor, rows are fetched from the driver in batches
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT w FROM WorkoutPlan w WHERE (:userId IS NULL OR w.userId = :userId) " +
+           "AND (:from IS NULL OR w.createdAt >= :from) AND (:to IS NULL OR w.createdAt < :to) ORDER BY w.id")
+    Stream<WorkoutPlan> streamForExport(@Param("userId") Long userId,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
+
+    // Trainer and gym names only, for building the name search index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT w.id AS id, w.userId AS userId, w.trainer AS trainer, w.gymName AS gymName FROM WorkoutPlan w")
+    Stream<PlanNames> streamNames();
+
+    // Counter reconciliation - plan and BMI counts for a chunk of users
+    @Query("SELECT w.userId AS userId, COUNT(w) AS workoutPlans, COUNT(w.bmiData) AS bmiResults " +
+           "FROM WorkoutPlan w WHERE w.userId IN :userIds GROUP BY w.userId")
+    List<UserPlanCounts> countByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    interface PlanOwner {
+        Long getId();
+        Long getUserId();
+    }
+
+    interface UserPlanCounts {
+        Long getUserId();
+        Long getWorkoutPlans();
+        Long getBmiResults();
+    }
+
+    interface PlanNames {
+        Long getId();
+        Long getUserId();
+        String getTrainer();
+        String getGymName();
+    }
+}
@@ -0,0 +1,43 @@
+package com.fiteasy.repository;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fiteasy.model.WorkoutPlan;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Row of the per-user plan list and the trainer/gym search, read with a constructor
+ * expression instead of loading managed entities. The per-user list carries the full
+ * workOut. The search's view=summary ({@link #preview}) keeps only the first
+ * WORK_OUT_PREVIEW_LENGTH characters; GET /api/workout-plans/{id} returns the full plan.
+ */
+public record WorkoutPlanSummary(
+        Long id,
+        Long userId,
+        String bmiData,
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate dateCreated,
+        Integer age,
+        String gender,
+        BigDecimal height,
+        BigDecimal weight,
+        String trainer,
+        String gymName,
+        String spentTimeInGym,
+        String workOut,
+        String repsSets,
+        LocalDateTime createdAt) {
+
+    public static final int WORK_OUT_PREVIEW_LENGTH = 100;
+
+    public static WorkoutPlanSummary preview(WorkoutPlan plan) {
+        String workOut = plan.getWorkOut();
+        if (workOut != null && workOut.length() > WORK_OUT_PREVIEW_LENGTH) {
+            workOut = workOut.substring(0, WORK_OUT_PREVIEW_LENGTH);
+        }
+        return new WorkoutPlanSummary(plan.getId(), plan.getUserId(), plan.getBmiData(), plan.getDateCreated(),
+                plan.getAge(), plan.getGender(), plan.getHeight(), plan.getWeight(), plan.getTrainer(),
+                plan.getGymName(), plan.getSpentTimeInGym(), workOut, plan.getRepsSets(), plan.getCreatedAt());
+    }
+}
@@ -0,0 +1,258 @@
+package com.fiteasy.search;
+
+import com.fiteasy.model.HelpingTool;
+import com.fiteasy.repository.HelpingToolRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over helping tool URLs (host and path tokens) and
+ * description words. Replaces the LIKE '%term%' scans behind the search
+ * endpoints: every query token is resolved by a prefix range lookup on a sorted
+ * term dictionary, documents must match all query tokens, and results are
+ * ranked by the inverse document frequency of the matched terms.
+ */
+@Component
+public class HelpingToolSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(HelpingToolSearchIndex.class);
+
+    // URL noise that would otherwise match nearly every document
+    private static final Set<String> URL_STOP_WORDS = Set.of("http", "https", "www", "com", "html", "htm", "php");
+
+    public enum Field { URL, DESCRIPTION }
+
+    private final Map<Field, ConcurrentSkipListMap<String, Set<Long>>> postings = Map.of(
+            Field.URL, new ConcurrentSkipListMap<>(),
+            Field.DESCRIPTION, new ConcurrentSkipListMap<>());
+
+    // Terms per document, needed to remove or replace a document
+    private final ConcurrentHashMap<Long, IndexedTool> documents = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Long, Set<Long>> documentsByUser = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    @Autowired
+    private HelpingToolRepository helpingToolRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private record IndexedTool(Long userId, Set<String> urlTerms, Set<String> descriptionTerms) {
+    }
+
+    private record TokenMatch(String token, NavigableMap<String, Set<Long>> terms, int candidates) {
+    }
+
+    // Build the index from the database once the application is up
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        clear();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<HelpingTool> tools = helpingToolRepository.streamForExport(null, null, null)) {
+                tools.forEach(tool -> add(tool.getId(), tool.getUserId(), tool.getUrl(), tool.getDescription()));
+            }
+        });
+        ready = true;
+        log.info("Indexed {} helping tools for search in {} ms", documents.size(), System.currentTimeMillis() - started);
+    }
+
+    // Searches fall back to the database until the first build has finished
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public void add(Long id, Long userId, String url, String description) {
+        IndexedTool tool = new IndexedTool(userId, tokenizeUrl(url), tokenizeText(description));
+        IndexedTool previous = documents.put(id, tool);
+        if (previous != null) {
+            unindex(id, previous);
+        }
+        addPostings(Field.URL, tool.urlTerms(), id);
+        addPostings(Field.DESCRIPTION, tool.descriptionTerms(), id);
+        documentsByUser.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    public void remove(Long id) {
+        IndexedTool tool = documents.remove(id);
+        if (tool != null) {
+            unindex(id, tool);
+            Set<Long> userDocuments = documentsByUser.get(tool.userId());
+            if (userDocuments != null) {
+                userDocuments.remove(id);
+            }
+        }
+    }
+
+    public void removeByUserId(Long userId) {
+        Set<Long> userDocuments = documentsByUser.remove(userId);
+        if (userDocuments != null) {
+            userDocuments.forEach(this::remove);
+        }
+    }
+
+    public void clear() {
+        ready = false;
+        postings.values().forEach(Map::clear);
+        documents.clear();
+        documentsByUser.clear();
+    }
+
+    // Ids of documents containing every query token (as a term prefix), best match first
+    public List<Long> search(Field field, String query, int limit) {
+        Set<String> queryTokens = field == Field.URL ? tokenizeUrl(query) : tokenizeText(query);
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // Resolve every token to its matching terms, then intersect starting from the rarest token
+        ConcurrentSkipListMap<String, Set<Long>> dictionary = postings.get(field);
+        List<TokenMatch> matches = new ArrayList<>();
+        for (String token : queryTokens) {
+            NavigableMap<String, Set<Long>> terms = dictionary.subMap(token, true, token + Character.MAX_VALUE, false);
+            if (terms.isEmpty()) {
+                return List.of();
+            }
+            matches.add(new TokenMatch(token, terms, terms.values().stream().mapToInt(Set::size).sum()));
+        }
+        matches.sort(Comparator.comparingInt(TokenMatch::candidates));
+
+        int totalDocuments = Math.max(documents.size(), 1);
+        Map<Long, Double> scores = new HashMap<>();
+        TokenMatch rarest = matches.get(0);
+        for (Map.Entry<String, Set<Long>> term : rarest.terms().entrySet()) {
+            double termScore = termScore(rarest.token(), term, totalDocuments);
+            for (Long id : term.getValue()) {
+                scores.merge(id, termScore, Math::max);
+            }
+        }
+
+        // Remaining tokens only need membership checks against the surviving candidates
+        for (TokenMatch match : matches.subList(1, matches.size())) {
+            scores.entrySet().removeIf(candidate -> {
+                double best = 0;
+                for (Map.Entry<String, Set<Long>> term : match.terms().entrySet()) {
+                    if (term.getValue().contains(candidate.getKey())) {
+                        best = Math.max(best, termScore(match.token(), term, totalDocuments));
+                    }
+                }
+                if (best == 0) {
+                    return true;
+                }
+                candidate.setValue(candidate.getValue() + best);
+                return false;
+            });
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        // Keep only the best matches instead of sorting every hit
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(Math.min(limit, scores.size()) + 1, ranking);
+        for (Map.Entry<Long, Double> candidate : scores.entrySet()) {
+            if (best.size() < limit) {
+                best.add(candidate);
+            } else if (ranking.compare(candidate, best.peek()) > 0) {
+                best.poll();
+                best.add(candidate);
+            }
+        }
+        List<Long> ranked = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ranked.add(best.poll().getKey());
+        }
+        Collections.reverse(ranked);
+        return ranked;
+    }
+
+    // Inverse document frequency, doubled for whole-word matches so they outrank prefix matches
+    private static double termScore(String token, Map.Entry<String, Set<Long>> term, int totalDocuments) {
+        double weight = Math.log(1.0 + (double) totalDocuments / Math.max(term.getValue().size(), 1));
+        return term.getKey().equals(token) ? weight * 2 : weight;
+    }
+
+    // Host and path tokens, e.g. https://www.youtube.com/watch?v=abc -> youtube, watch, v, abc
+    static Set<String> tokenizeUrl(String url) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : tokenizeText(url)) {
+            if (!URL_STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static Set<String> tokenizeText(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void addPostings(Field field, Set<String> terms, Long id) {
+        ConcurrentSkipListMap<String, Set<Long>> dictionary = postings.get(field);
+        for (String term : terms) {
+            dictionary.compute(term, (key, ids) -> {
+                Set<Long> updated = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                updated.add(id);
+                return updated;
+            });
+        }
+    }
+
+    private void unindex(Long id, IndexedTool tool) {
+        removePostings(Field.URL, tool.urlTerms(), id);
+        removePostings(Field.DESCRIPTION, tool.descriptionTerms(), id);
+    }
+
+    private void removePostings(Field field, Set<String> terms, Long id) {
+        ConcurrentSkipListMap<String, Set<Long>> dictionary = postings.get(field);
+        for (String term : terms) {
+            dictionary.computeIfPresent(term, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+}
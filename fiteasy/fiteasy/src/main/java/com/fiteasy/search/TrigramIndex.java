@@ -0,0 +1,170 @@
+package com.fiteasy.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Trigram posting lists over a set of distinct names, each name mapping to the
+ * ids of the rows that carry it. Substring queries are answered by intersecting
+ * the query's trigrams and verifying the few surviving names; typo-tolerant
+ * queries rank names by the share of query trigrams they contain.
+ * Writers are serialized, readers never block.
+ */
+public class TrigramIndex {
+
+    // normalized name -> row ids, newest first
+    private final ConcurrentHashMap<String, NavigableSet<Long>> idsByName = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Set<String>> namesByTrigram = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Long, String> nameById = new ConcurrentHashMap<>();
+
+    private record NameMatch(String name, double score) {
+    }
+
+    public synchronized void add(Long id, String name) {
+        String normalized = normalize(name);
+        String previous = normalized.isEmpty() ? nameById.remove(id) : nameById.put(id, normalized);
+        if (previous != null) {
+            if (previous.equals(normalized)) {
+                return;
+            }
+            unlink(id, previous);
+        }
+        if (normalized.isEmpty()) {
+            return;
+        }
+        idsByName.computeIfAbsent(normalized, key -> {
+            trigrams(key).forEach(trigram -> namesByTrigram.computeIfAbsent(trigram, t -> ConcurrentHashMap.newKeySet()).add(key));
+            return new ConcurrentSkipListSet<>(Comparator.reverseOrder());
+        }).add(id);
+    }
+
+    public synchronized void remove(Long id) {
+        String name = nameById.remove(id);
+        if (name != null) {
+            unlink(id, name);
+        }
+    }
+
+    public synchronized void clear() {
+        idsByName.clear();
+        namesByTrigram.clear();
+        nameById.clear();
+    }
+
+    public int distinctNames() {
+        return idsByName.size();
+    }
+
+    /**
+     * Ids of rows whose name contains the query, best matching name first. With
+     * {@code fuzzy} set, names sharing at least {@code minSimilarity} of the
+     * query trigrams are appended after the exact substring matches.
+     */
+    public List<Long> search(String query, boolean fuzzy, double minSimilarity, int offset, int limit) {
+        List<NameMatch> names = matchNames(normalize(query), fuzzy, minSimilarity);
+        List<Long> page = new ArrayList<>(Math.min(limit, 64));
+        int skipped = 0;
+        for (NameMatch match : names) {
+            NavigableSet<Long> ids = idsByName.get(match.name());
+            if (ids == null) {
+                continue;
+            }
+            for (Long id : ids) {
+                if (skipped < offset) {
+                    skipped++;
+                } else if (page.size() < limit) {
+                    page.add(id);
+                } else {
+                    return page;
+                }
+            }
+        }
+        return page;
+    }
+
+    private List<NameMatch> matchNames(String query, boolean fuzzy, double minSimilarity) {
+        List<NameMatch> matches = new ArrayList<>();
+        if (query.isEmpty()) {
+            return matches;
+        }
+
+        Set<String> queryTrigrams = trigrams(query);
+        if (queryTrigrams.isEmpty()) {
+            // One or two characters carry no trigram; the distinct names are still far fewer than the rows
+            for (String name : idsByName.keySet()) {
+                if (name.contains(query)) {
+                    matches.add(new NameMatch(name, exactScore(query, name)));
+                }
+            }
+        } else {
+            Map<String, Integer> sharedTrigrams = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                for (String name : namesByTrigram.getOrDefault(trigram, Set.of())) {
+                    sharedTrigrams.merge(name, 1, Integer::sum);
+                }
+            }
+            for (Map.Entry<String, Integer> candidate : sharedTrigrams.entrySet()) {
+                String name = candidate.getKey();
+                int shared = candidate.getValue();
+                if (shared == queryTrigrams.size() && name.contains(query)) {
+                    matches.add(new NameMatch(name, exactScore(query, name)));
+                } else if (fuzzy) {
+                    double coverage = (double) shared / queryTrigrams.size();
+                    if (coverage >= minSimilarity) {
+                        // Dice coefficient breaks ties between names with the same coverage
+                        double dice = 2.0 * shared / (queryTrigrams.size() + trigrams(name).size());
+                        matches.add(new NameMatch(name, coverage * 0.9 + dice * 0.1));
+                    }
+                }
+            }
+        }
+
+        matches.sort(Comparator.comparingDouble(NameMatch::score).reversed().thenComparing(NameMatch::name));
+        return matches;
+    }
+
+    // Substring hits always outrank fuzzy ones; prefixes and closer lengths rank first
+    private static double exactScore(String query, String name) {
+        return 2.0 + (name.startsWith(query) ? 0.5 : 0) + (double) query.length() / name.length();
+    }
+
+    private void unlink(Long id, String name) {
+        NavigableSet<Long> ids = idsByName.get(name);
+        if (ids == null) {
+            return;
+        }
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            idsByName.remove(name);
+            for (String trigram : trigrams(name)) {
+                namesByTrigram.computeIfPresent(trigram, (key, names) -> {
+                    names.remove(name);
+                    return names.isEmpty() ? null : names;
+                });
+            }
+        }
+    }
+
+    static String normalize(String name) {
+        return name == null ? "" : name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> trigrams(String text) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,98 @@
+package com.fiteasy.search;
+
+import com.fiteasy.repository.WorkoutPlanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Trainer and gym name indexes for the workout plan search endpoints, so
+ * substring and typo-tolerant lookups resolve to plan ids without scanning
+ * workout_plans.
+ */
+@Component
+public class WorkoutPlanNameIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkoutPlanNameIndex.class);
+
+    private final TrigramIndex trainers = new TrigramIndex();
+
+    private final TrigramIndex gyms = new TrigramIndex();
+
+    // Plan ids per user, for the bulk delete of a user's plans
+    private final ConcurrentHashMap<Long, Set<Long>> plansByUser = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    @Autowired
+    private WorkoutPlanRepository workoutPlanRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        ready = false;
+        trainers.clear();
+        gyms.clear();
+        plansByUser.clear();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<WorkoutPlanRepository.PlanNames> plans = workoutPlanRepository.streamNames()) {
+                plans.forEach(plan -> add(plan.getId(), plan.getUserId(), plan.getTrainer(), plan.getGymName()));
+            }
+        });
+        ready = true;
+        log.info("Indexed {} trainer and {} gym names for search in {} ms",
+                trainers.distinctNames(), gyms.distinctNames(), System.currentTimeMillis() - started);
+    }
+
+    // Searches fall back to the database until the first build has finished
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void add(Long planId, Long userId, String trainer, String gymName) {
+        trainers.add(planId, trainer);
+        gyms.add(planId, gymName);
+        plansByUser.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(planId);
+    }
+
+    public void remove(Long planId, Long userId) {
+        trainers.remove(planId);
+        gyms.remove(planId);
+        Set<Long> userPlans = plansByUser.get(userId);
+        if (userPlans != null) {
+            userPlans.remove(planId);
+        }
+    }
+
+    public void removeByUserId(Long userId) {
+        Set<Long> userPlans = plansByUser.remove(userId);
+        if (userPlans != null) {
+            userPlans.forEach(planId -> {
+                trainers.remove(planId);
+                gyms.remove(planId);
+            });
+        }
+    }
+
+    public TrigramIndex trainers() {
+        return trainers;
+    }
+
+    public TrigramIndex gyms() {
+        return gyms;
+    }
+}
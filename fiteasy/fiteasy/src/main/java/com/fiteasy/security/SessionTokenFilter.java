@@ -0,0 +1,114 @@
+package com.fiteasy.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Authenticates API requests from the Bearer session token, entirely in
+ * memory. When tokens are required, requests outside the public signup/login
+ * endpoints without a valid token are rejected with 401. Otherwise a token that
+ * fails verification (a legacy fiteasy-token-N value, or one signed with a key
+ * that no longer exists) is treated like no token and the request continues
+ * anonymously.
+ */
+public class SessionTokenFilter extends OncePerRequestFilter {
+
+    // Request attribute holding the authenticated user id (Long)
+    public static final String USER_ID_ATTRIBUTE = "fiteasy.userId";
+
+    private static final String BEARER = "Bearer ";
+
+    private static final List<String> PUBLIC_PATHS = List.of(
+            "/api/users/register",
+            "/api/users/login",
+            "/api/users/logout",
+            "/api/users/check-username/**",
+            "/api/users/check-email/**",
+            "/api/workout-plans/calculate-bmi/**"
+    );
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final SessionTokenService sessionTokenService;
+
+    private final boolean requireToken;
+
+    public SessionTokenFilter(SessionTokenService sessionTokenService, boolean requireToken) {
+        this.sessionTokenService = sessionTokenService;
+        this.requireToken = requireToken;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String token = bearerToken(request);
+        Optional<SessionTokenService.Session> session = token == null ? Optional.empty() : sessionTokenService.verify(token);
+        if (session.isPresent()) {
+            long userId = session.get().userId();
+            request.setAttribute(USER_ID_ATTRIBUTE, userId);
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(userId, token, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        } else if (requireToken && !isPublic(request)) {
+            // A stale token on login or logout is ignored, so a client holding one can still sign in again
+            if (token != null) {
+                unauthorized(response, "Invalid or expired session token");
+                return;
+            }
+            if (!alreadyAuthenticated()) {
+                unauthorized(response, "Authentication required");
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    public static String bearerToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return null;
+        }
+        String token = header.substring(BEARER.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+
+    private boolean isPublic(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : PUBLIC_PATHS) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean alreadyAuthenticated() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated();
+    }
+
+    private static void unauthorized(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,194 @@
+package com.fiteasy.security;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues and verifies stateless session tokens. A token is the base64url
+ * encoding of [key id (1 byte) | user id (8) | expiry epoch second (8) |
+ * token id (8)] followed by its HMAC-SHA256, so verification is a MAC and a
+ * map lookup with no database access.
+ *
+ * Keys are configured as app.auth.keys=id:base64-secret,... and new tokens
+ * are signed with app.auth.active-key-id. To rotate, add the new key, make it
+ * active, and drop the old one once its tokens have expired.
+ *
+ * Without keys a random one is generated, so every restart and every other
+ * instance invalidates all sessions. That is refused at startup when tokens
+ * are required, except in the dev and test profiles.
+ */
+@Service
+public class SessionTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionTokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int PAYLOAD_BYTES = 1 + Long.BYTES * 3;
+    private static final int MAC_BYTES = 32;
+
+    @Value("${app.auth.keys:}")
+    private String keys;
+
+    @Value("${app.auth.active-key-id:0}")
+    private int activeKeyId;
+
+    @Value("${app.auth.token-ttl:12h}")
+    private Duration tokenTtl;
+
+    @Value("${app.auth.revocation-tick:1m}")
+    private Duration revocationTick;
+
+    @Value("${app.auth.require-token:false}")
+    private boolean requireToken;
+
+    @Autowired
+    private Environment environment;
+
+    private Clock clock = Clock.systemUTC();
+
+    private final SecureRandom random = new SecureRandom();
+
+    // Initialised prototypes indexed by key id; each call works on a clone since Mac is not thread-safe
+    private final Mac[] macs = new Mac[256];
+
+    private TokenRevocationList revoked;
+
+    public record Session(long userId, Instant expiresAt, long tokenId) {
+    }
+
+    public record IssuedToken(String token, Instant expiresAt) {
+    }
+
+    @PostConstruct
+    void init() throws GeneralSecurityException {
+        if (keys == null || keys.isBlank()) {
+            if (requireToken && !environment.acceptsProfiles(Profiles.of("dev", "test"))) {
+                throw new IllegalStateException("app.auth.keys must be set when app.auth.require-token=true");
+            }
+            byte[] secret = new byte[32];
+            random.nextBytes(secret);
+            macs[activeKeyId] = mac(secret);
+            log.warn("No app.auth.keys configured - using a random signing key, sessions will not survive a restart "
+                    + "or be accepted by other instances");
+        } else {
+            for (String entry : keys.split(",")) {
+                String[] parts = entry.trim().split(":", 2);
+                int id = Integer.parseInt(parts[0].trim());
+                if (id < 0 || id > 255 || parts.length < 2) {
+                    throw new IllegalStateException("app.auth.keys entries must be <0-255>:<base64 secret>");
+                }
+                macs[id] = mac(Base64.getDecoder().decode(parts[1].trim()));
+            }
+        }
+        if (activeKeyId < 0 || activeKeyId > 255 || macs[activeKeyId] == null) {
+            throw new IllegalStateException("app.auth.active-key-id " + activeKeyId + " has no key in app.auth.keys");
+        }
+        revoked = new TokenRevocationList(tokenTtl, revocationTick, clock.instant().getEpochSecond());
+    }
+
+    public IssuedToken issue(long userId) {
+        Instant expiresAt = clock.instant().plus(tokenTtl);
+        ByteBuffer buffer = ByteBuffer.allocate(PAYLOAD_BYTES + MAC_BYTES);
+        buffer.put((byte) activeKeyId)
+                .putLong(userId)
+                .putLong(expiresAt.getEpochSecond())
+                .putLong(random.nextLong());
+        byte[] token = buffer.array();
+        sign(macs[activeKeyId], token);
+        return new IssuedToken(Base64.getUrlEncoder().withoutPadding().encodeToString(token), Instant.ofEpochSecond(expiresAt.getEpochSecond()));
+    }
+
+    // Empty for malformed, tampered, expired or revoked tokens and for tokens signed with a retired key
+    public Optional<Session> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (bytes.length != PAYLOAD_BYTES + MAC_BYTES) {
+            return Optional.empty();
+        }
+
+        Mac prototype = macs[bytes[0] & 0xFF];
+        if (prototype == null) {
+            return Optional.empty();
+        }
+        byte[] expected = Arrays.copyOf(bytes, bytes.length);
+        sign(prototype, expected);
+        if (!MessageDigest.isEqual(expected, bytes)) {
+            return Optional.empty();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, PAYLOAD_BYTES - 1);
+        long userId = buffer.getLong();
+        long expiresAt = buffer.getLong();
+        long tokenId = buffer.getLong();
+        if (expiresAt <= clock.instant().getEpochSecond() || revoked.isRevoked(tokenId)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Session(userId, Instant.ofEpochSecond(expiresAt), tokenId));
+    }
+
+    // Returns false when the token was not valid to begin with
+    public boolean revoke(String token) {
+        Optional<Session> session = verify(token);
+        session.ifPresent(s -> revoked.revoke(s.tokenId(), s.expiresAt().getEpochSecond()));
+        return session.isPresent();
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.revocation-tick:1m}")
+    public void expireRevocations() {
+        int dropped = revoked.advance(clock.instant().getEpochSecond());
+        if (dropped > 0) {
+            log.debug("Dropped {} expired token revocations, {} remain", dropped, revoked.size());
+        }
+    }
+
+    public int revokedCount() {
+        return revoked.size();
+    }
+
+    // Writes the MAC of the payload into the last MAC_BYTES of the token
+    private static void sign(Mac prototype, byte[] token) {
+        try {
+            Mac mac = (Mac) prototype.clone();
+            mac.update(token, 0, PAYLOAD_BYTES);
+            mac.doFinal(token, PAYLOAD_BYTES);
+        } catch (CloneNotSupportedException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot compute session token MAC", e);
+        }
+    }
+
+    private static Mac mac(byte[] secret) throws GeneralSecurityException {
+        if (secret.length < 32) {
+            throw new IllegalStateException("Session token keys must be at least 256 bits");
+        }
+        Mac mac = Mac.getInstance(ALGORITHM);
+        mac.init(new SecretKeySpec(secret, ALGORITHM));
+        return mac;
+    }
+}
@@ -0,0 +1,77 @@
+package com.fiteasy.security;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked session token ids, kept only until the token would have expired
+ * anyway. Lookups hit a concurrent map; expiry is driven by a timing wheel
+ * with one bucket per tick, so {@link #advance} only touches the buckets whose
+ * tokens have just expired instead of scanning every revoked token.
+ */
+public class TokenRevocationList {
+
+    private final ConcurrentHashMap<Long, Long> expiryByToken = new ConcurrentHashMap<>();
+
+    private final Set<Long>[] wheel;
+
+    private final long tickSeconds;
+
+    // First tick whose bucket has not been swept yet
+    private long nextTick;
+
+    @SuppressWarnings("unchecked")
+    public TokenRevocationList(Duration maxTokenTtl, Duration tick, long nowEpochSecond) {
+        this.tickSeconds = Math.max(1, tick.toSeconds());
+        // One full revolution covers the longest-lived token, so a bucket never mixes revolutions in practice
+        int buckets = (int) (maxTokenTtl.toSeconds() / tickSeconds) + 2;
+        this.wheel = new Set[buckets];
+        for (int i = 0; i < buckets; i++) {
+            wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.nextTick = nowEpochSecond / tickSeconds;
+    }
+
+    public void revoke(long tokenId, long expiresAtEpochSecond) {
+        long tick = expiresAtEpochSecond / tickSeconds;
+        if (expiryByToken.putIfAbsent(tokenId, expiresAtEpochSecond) == null) {
+            wheel[bucket(tick)].add(tokenId);
+        }
+    }
+
+    public boolean isRevoked(long tokenId) {
+        return expiryByToken.containsKey(tokenId);
+    }
+
+    // Drops every entry that expired before now; returns how many were dropped
+    public synchronized int advance(long nowEpochSecond) {
+        long nowTick = nowEpochSecond / tickSeconds;
+        // After a long pause one revolution is enough to see every bucket
+        long from = Math.max(nextTick, nowTick - wheel.length);
+        int dropped = 0;
+        for (long tick = from; tick < nowTick; tick++) {
+            long tickEnd = (tick + 1) * tickSeconds;
+            Set<Long> bucket = wheel[bucket(tick)];
+            for (Long tokenId : bucket) {
+                Long expiresAt = expiryByToken.get(tokenId);
+                if (expiresAt == null || expiresAt < tickEnd) {
+                    bucket.remove(tokenId);
+                    if (expiresAt != null && expiryByToken.remove(tokenId, expiresAt)) {
+                        dropped++;
+                    }
+                }
+            }
+        }
+        nextTick = Math.max(nextTick, nowTick);
+        return dropped;
+    }
+
+    public int size() {
+        return expiryByToken.size();
+    }
+
+    private int bucket(long tick) {
+        return (int) Math.floorMod(tick, (long) wheel.length);
+    }
+}
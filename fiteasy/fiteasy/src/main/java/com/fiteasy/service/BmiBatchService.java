@@ -0,0 +1,215 @@
+package com.fiteasy.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiteasy.util.BmiCalculator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Batch BMI calculation for partner clinics. Measurements are read and results
+ * written one at a time, so a batch of any size runs in constant memory, and
+ * each row goes through BmiCalculator instead of BigDecimal division. A bad
+ * row gets an error entry in the output and does not fail the batch.
+ */
+@Service
+public class BmiBatchService {
+
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Reads a JSON array of {"id": ..., "height": cm, "weight": kg} objects and writes a JSON array of
+     * {"index": n, "id": ..., "bmi": "22.86", "category": "Normal weight"} (or "error") in the same order.
+     * Returns the number of measurements processed.
+     *
+     * @throws IllegalArgumentException before anything is written when the body is not a JSON array
+     */
+    public long calculateJson(InputStream in, OutputStream out) throws IOException {
+        return calculateJson(openJson(in), out);
+    }
+
+    /**
+     * Reads up to the opening bracket of the measurements array, so a caller can reject a bad body
+     * before committing to a response. Pass the parser to {@link #calculateJson(JsonParser, OutputStream)}.
+     *
+     * @throws IllegalArgumentException when the body is not a JSON array
+     */
+    public JsonParser openJson(InputStream in) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(in);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IllegalArgumentException("Expected a JSON array of measurements");
+        }
+        return parser;
+    }
+
+    // Continues a parser from openJson and closes it when done
+    public long calculateJson(JsonParser measurements, OutputStream out) throws IOException {
+        try (JsonParser parser = measurements) {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                long index = 0;
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("index", index);
+                    if (token == JsonToken.START_OBJECT) {
+                        writeJsonResult(parser, generator);
+                    } else {
+                        parser.skipChildren();
+                        generator.writeStringField("error", "Each measurement must be an object");
+                    }
+                    generator.writeEndObject();
+                    if (++index % FLUSH_EVERY_ROWS == 0) {
+                        generator.flush();
+                    }
+                }
+                generator.writeEndArray();
+                generator.flush();
+                return index;
+            }
+        }
+    }
+
+    /**
+     * Reads CSV lines of height,weight (or id,height,weight), with an optional header row naming the
+     * columns, and writes row,id,bmi,category,error lines. Returns the number of measurements processed.
+     */
+    public long calculateCsv(Reader in, Writer out) throws IOException {
+        BufferedReader reader = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in);
+        out.write("row,id,bmi,category,error\n");
+
+        int idColumn = -1;
+        int heightColumn = 0;
+        int weightColumn = 1;
+        boolean firstLine = true;
+        long row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] columns = line.split(",", -1);
+            if (firstLine) {
+                firstLine = false;
+                String first = unquote(columns[0]).toLowerCase(Locale.ROOT);
+                if (first.isEmpty() || !Character.isDigit(first.charAt(0)) && first.charAt(0) != '.') {
+                    // Header row: take the column positions from it
+                    idColumn = -1;
+                    for (int i = 0; i < columns.length; i++) {
+                        switch (unquote(columns[i]).toLowerCase(Locale.ROOT)) {
+                            case "id" -> idColumn = i;
+                            case "height" -> heightColumn = i;
+                            case "weight" -> weightColumn = i;
+                            default -> { }
+                        }
+                    }
+                    continue;
+                }
+                if (columns.length >= 3) {
+                    idColumn = 0;
+                    heightColumn = 1;
+                    weightColumn = 2;
+                }
+            }
+
+            row++;
+            out.write(Long.toString(row));
+            out.write(',');
+            if (idColumn >= 0 && idColumn < columns.length) {
+                out.write(unquote(columns[idColumn]));
+            }
+            out.write(',');
+            String height = heightColumn < columns.length ? unquote(columns[heightColumn]) : "";
+            String weight = weightColumn < columns.length ? unquote(columns[weightColumn]) : "";
+            try {
+                long cents = calculate(height.isEmpty() ? null : height, weight.isEmpty() ? null : weight);
+                out.write(BmiCalculator.format(cents));
+                out.write(',');
+                out.write(BmiCalculator.category(cents));
+                out.write(",\n");
+            } catch (IllegalArgumentException e) {
+                out.write(",,");
+                out.write(e.getMessage().replace(',', ';'));
+                out.write('\n');
+            }
+            if (row % FLUSH_EVERY_ROWS == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+        return row;
+    }
+
+    private void writeJsonResult(JsonParser parser, JsonGenerator generator) throws IOException {
+        String id = null;
+        boolean numericId = false;
+        String height = null;
+        String weight = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isStructStart()) {
+                parser.skipChildren();
+                continue;
+            }
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "id" -> {
+                    id = parser.getText();
+                    numericId = value.isNumeric();
+                }
+                case "height" -> height = parser.getText();
+                case "weight" -> weight = parser.getText();
+                default -> { }
+            }
+        }
+
+        if (id != null) {
+            generator.writeFieldName("id");
+            if (numericId) {
+                generator.writeNumber(id);
+            } else {
+                generator.writeString(id);
+            }
+        }
+        try {
+            long cents = calculate(height, weight);
+            generator.writeStringField("bmi", BmiCalculator.format(cents));
+            generator.writeStringField("category", BmiCalculator.category(cents));
+        } catch (IllegalArgumentException e) {
+            generator.writeStringField("error", e.getMessage());
+        }
+    }
+
+    private static long calculate(String height, String weight) {
+        if (height == null || weight == null) {
+            throw new IllegalArgumentException("Both height and weight are required");
+        }
+        return BmiCalculator.bmiCents(height, weight);
+    }
+
+    private static String unquote(String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && trimmed.charAt(0) == '"' && trimmed.charAt(trimmed.length() - 1) == '"') {
+            return trimmed.substring(1, trimmed.length() - 1).trim();
+        }
+        return trimmed;
+    }
+}
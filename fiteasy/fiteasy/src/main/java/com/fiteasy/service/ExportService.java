@@ -0,0 +1,81 @@
+package com.fiteasy.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fiteasy.model.HelpingTool;
+import com.fiteasy.model.WorkoutPlan;
+import com.fiteasy.repository.HelpingToolRepository;
+import com.fiteasy.repository.WorkoutPlanRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Newline-delimited JSON export of workout plans and helping tools for analytics pulls.
+ * Rows are read through a forward-only cursor and written one at a time, then detached,
+ * so heap usage stays constant regardless of how many rows are exported.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ExportService {
+
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    @Autowired
+    private WorkoutPlanRepository workoutPlanRepository;
+
+    @Autowired
+    private HelpingToolRepository helpingToolRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Returns the number of exported rows; from is inclusive and to is exclusive
+    public long exportWorkoutPlans(Long userId, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        try (Stream<WorkoutPlan> plans = workoutPlanRepository.streamForExport(userId, from, to)) {
+            return writeNdjson(plans, WorkoutPlan.class, out);
+        }
+    }
+
+    public long exportHelpingTools(Long userId, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        try (Stream<HelpingTool> tools = helpingToolRepository.streamForExport(userId, from, to)) {
+            return writeNdjson(tools, HelpingTool.class, out);
+        }
+    }
+
+    private <T> long writeNdjson(Stream<T> rows, Class<T> type, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            long written = 0;
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                writer.writeValue(generator, row);
+                generator.writeRaw('\n');
+
+                // Keep the persistence context empty while streaming
+                entityManager.detach(row);
+                if (++written % FLUSH_EVERY_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+            return written;
+        }
+    }
+}
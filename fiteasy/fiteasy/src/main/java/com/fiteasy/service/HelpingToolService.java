@@ -1,14 +1,29 @@
 package com.fiteasy.service;
 
+import com.fiteasy.config.CacheConfig;
 import com.fiteasy.model.HelpingTool;
 import com.fiteasy.repository.HelpingToolRepository;
+import com.fiteasy.repository.HelpingToolSummary;
 import com.fiteasy.repository.UserRepository;
+import com.fiteasy.search.HelpingToolSearchIndex;
+import com.fiteasy.util.AfterCommit;
+import com.fiteasy.util.CursorPage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -20,6 +35,21 @@ public class HelpingToolService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCounterService userCounterService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private HelpingToolSearchIndex searchIndex;
+
+    // Upper bound on ids per batch delete, keeping the IN list to a sane size
+    static final int MAX_BATCH_DELETE = 1000;
+
+    @Value("${app.search.max-results:500}")
+    private int maxSearchResults = 500;
+
     // PAGE 7: Create helping tool
     public HelpingTool createHelpingTool(HelpingTool helpingTool) {
         // Validate user exists
@@ -37,20 +67,27 @@ public class HelpingToolService {
             throw new RuntimeException("Tool type is required");
         }
 
-        return helpingToolRepository.save(helpingTool);
+        HelpingTool savedTool = helpingToolRepository.save(helpingTool);
+        userCounterService.helpingToolAdded(savedTool.getUserId(), savedTool.getType());
+        evictHelpingToolsCache(savedTool.getUserId());
+        indexAfterCommit(savedTool);
+        return savedTool;
     }
 
-    // PAGE 7: Get all helping tools for user
-    public List<HelpingTool> getHelpingToolsByUserId(Long userId) {
-        return helpingToolRepository.findByUserId(userId);
+    // PAGE 7: Get all helping tools for user - cache fills stay on the primary (read-write)
+    @Cacheable(cacheNames = CacheConfig.HELPING_TOOLS_BY_USER, key = "#userId")
+    public List<HelpingToolSummary> getHelpingToolsByUserId(Long userId) {
+        return helpingToolRepository.findSummariesByUserId(userId);
     }
 
     // PAGE 7: Get helping tools by user and type
-    public List<HelpingTool> getHelpingToolsByUserIdAndType(Long userId, HelpingTool.ToolType type) {
-        return helpingToolRepository.findByUserIdAndType(userId, type);
+    @Transactional(readOnly = true)
+    public List<HelpingToolSummary> getHelpingToolsByUserIdAndType(Long userId, HelpingTool.ToolType type) {
+        return helpingToolRepository.findSummariesByUserIdAndType(userId, type);
     }
 
     // PAGE 7: Get helping tool by ID
+    @Transactional(readOnly = true)
     public Optional<HelpingTool> getHelpingToolById(Long id) {
         return helpingToolRepository.findById(id);
     }
@@ -59,6 +96,7 @@ public class HelpingToolService {
     public HelpingTool updateHelpingTool(Long id, HelpingTool toolDetails) {
         HelpingTool tool = helpingToolRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Helping tool not found with id: " + id));
+        HelpingTool.ToolType previousType = tool.getType();
 
         // Update fields
         if (toolDetails.getType() != null) {
@@ -73,7 +111,11 @@ public class HelpingToolService {
             tool.setDescription(toolDetails.getDescription());
         }
 
-        return helpingToolRepository.save(tool);
+        HelpingTool savedTool = helpingToolRepository.save(tool);
+        userCounterService.helpingToolTypeChanged(savedTool.getUserId(), previousType, savedTool.getType());
+        evictHelpingToolsCache(savedTool.getUserId());
+        indexAfterCommit(savedTool);
+        return savedTool;
     }
 
     // PAGE 7: Delete helping tool
@@ -81,31 +123,74 @@ public class HelpingToolService {
         HelpingTool tool = helpingToolRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Helping tool not found with id: " + id));
         helpingToolRepository.delete(tool);
+        userCounterService.helpingToolRemoved(tool.getUserId(), tool.getType());
+        evictHelpingToolsCache(tool.getUserId());
+        AfterCommit.run(() -> searchIndex.remove(id));
     }
 
-    // PAGE 7: Delete all helping tools by user and type
+    // PAGE 7: Delete all helping tools by user and type - one SELECT of ids and one DELETE, however many rows
     public void deleteHelpingToolsByUserIdAndType(Long userId, HelpingTool.ToolType type) {
-        List<HelpingTool> tools = helpingToolRepository.findByUserIdAndType(userId, type);
-        helpingToolRepository.deleteAll(tools);
+        List<Long> removedIds = helpingToolRepository.findIdsByUserIdAndType(userId, type);
+        int deleted = helpingToolRepository.deleteByUserIdAndType(userId, type);
+        userCounterService.helpingToolsRemoved(userId, type, deleted);
+        evictHelpingToolsCache(userId);
+        AfterCommit.run(() -> removedIds.forEach(searchIndex::remove));
+    }
+
+    // Delete many helping tools by id in one statement; unknown ids are skipped. Returns the number deleted.
+    public int deleteHelpingTools(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        if (ids.size() > MAX_BATCH_DELETE) {
+            throw new RuntimeException("At most " + MAX_BATCH_DELETE + " helping tools can be deleted at once");
+        }
+
+        List<HelpingToolRepository.ToolOwner> owners = helpingToolRepository.findOwnersByIdIn(
+                ids.stream().filter(Objects::nonNull).collect(Collectors.toSet()));
+        if (owners.isEmpty()) {
+            return 0;
+        }
+        List<Long> removedIds = owners.stream().map(HelpingToolRepository.ToolOwner::getId).toList();
+        int deleted = helpingToolRepository.deleteByIdIn(removedIds);
+
+        // One counter update per user and type rather than per row
+        Map<Long, Map<HelpingTool.ToolType, Long>> removedByUser = owners.stream()
+                .collect(Collectors.groupingBy(HelpingToolRepository.ToolOwner::getUserId,
+                        Collectors.groupingBy(HelpingToolRepository.ToolOwner::getType, Collectors.counting())));
+        if (deleted == owners.size()) {
+            removedByUser.forEach((userId, counts) ->
+                    counts.forEach((type, count) -> userCounterService.helpingToolsRemoved(userId, type, count)));
+        } else {
+            // A concurrent delete got to some rows first, so recount the affected users instead
+            removedByUser.keySet().forEach(userCounterService::rebuildCounters);
+        }
+        removedByUser.keySet().forEach(this::evictHelpingToolsCache);
+        AfterCommit.run(() -> removedIds.forEach(searchIndex::remove));
+        return deleted;
     }
 
     // PAGE 4: Dashboard counts
+    @Transactional(readOnly = true)
     public long getHelpingToolsCountByUserId(Long userId) {
         return helpingToolRepository.countByUserId(userId);
     }
 
+    @Transactional(readOnly = true)
     public long getCountByUserIdAndType(Long userId, HelpingTool.ToolType type) {
         return helpingToolRepository.countByUserIdAndType(userId, type);
     }
 
     // PAGE 7: Get YouTube links
-    public List<HelpingTool> getYouTubeLinks(Long userId) {
-        return helpingToolRepository.findByUserIdAndType(userId, HelpingTool.ToolType.youtube);
+    @Transactional(readOnly = true)
+    public List<HelpingToolSummary> getYouTubeLinks(Long userId) {
+        return helpingToolRepository.findSummariesByUserIdAndType(userId, HelpingTool.ToolType.youtube);
     }
 
     // PAGE 7: Get equipment links
-    public List<HelpingTool> getEquipmentLinks(Long userId) {
-        return helpingToolRepository.findByUserIdAndType(userId, HelpingTool.ToolType.equipment);
+    @Transactional(readOnly = true)
+    public List<HelpingToolSummary> getEquipmentLinks(Long userId) {
+        return helpingToolRepository.findSummariesByUserIdAndType(userId, HelpingTool.ToolType.equipment);
     }
 
     // PAGE 7: Add YouTube link specifically
@@ -133,19 +218,68 @@ public class HelpingToolService {
     // Delete all helping tools for user (cascade delete)
     public void deleteHelpingToolsByUserId(Long userId) {
         helpingToolRepository.deleteByUserId(userId);
+        userCounterService.helpingToolsCleared(userId);
+        evictHelpingToolsCache(userId);
+        AfterCommit.run(() -> searchIndex.removeByUserId(userId));
     }
 
     // Admin functions
+    @Transactional(readOnly = true)
     public List<HelpingTool> getAllHelpingTools() {
         return helpingToolRepository.findAll();
     }
 
-    public List<HelpingTool> searchHelpingToolsByUrl(String searchTerm) {
-        return helpingToolRepository.findByUrlContainingIgnoreCase(searchTerm);
+    // Keyset paginated version of getAllHelpingTools - bounded memory per request
+    @Transactional(readOnly = true)
+    public CursorPage<HelpingTool> getHelpingToolsPage(String cursor, Integer size) {
+        int pageSize = CursorPage.pageSize(size);
+        List<HelpingTool> rows = helpingToolRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, HelpingTool::getId);
+    }
+
+    // Served from the in-memory index, best match first; LIKE scan only until the index is built
+    @Transactional(readOnly = true)
+    public List<HelpingToolSummary> searchHelpingToolsByUrl(String searchTerm) {
+        if (!searchIndex.isReady()) {
+            return helpingToolRepository.findByUrlContainingIgnoreCase(searchTerm).stream().map(HelpingToolSummary::of).toList();
+        }
+        return findRanked(searchIndex.search(HelpingToolSearchIndex.Field.URL, searchTerm, maxSearchResults));
+    }
+
+    @Transactional(readOnly = true)
+    public List<HelpingToolSummary> searchHelpingToolsByDescription(String searchTerm) {
+        if (!searchIndex.isReady()) {
+            return helpingToolRepository.findByDescriptionContainingIgnoreCase(searchTerm).stream().map(HelpingToolSummary::of).toList();
+        }
+        return findRanked(searchIndex.search(HelpingToolSearchIndex.Field.DESCRIPTION, searchTerm, maxSearchResults));
+    }
+
+    // Load the matched rows in one query and keep the index ranking
+    private List<HelpingToolSummary> findRanked(List<Long> rankedIds) {
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, HelpingToolSummary> toolsById = helpingToolRepository.findSummariesByIdIn(rankedIds).stream()
+                .collect(Collectors.toMap(HelpingToolSummary::id, Function.identity()));
+        return rankedIds.stream().map(toolsById::get).filter(Objects::nonNull).toList();
     }
 
-    public List<HelpingTool> searchHelpingToolsByDescription(String searchTerm) {
-        return helpingToolRepository.findByDescriptionContainingIgnoreCase(searchTerm);
+    // Index changes are applied after commit so a rollback cannot leave the index ahead of the table
+    private void indexAfterCommit(HelpingTool tool) {
+        Long id = tool.getId();
+        Long userId = tool.getUserId();
+        String url = tool.getUrl();
+        String description = tool.getDescription();
+        AfterCommit.run(() -> searchIndex.add(id, userId, url, description));
+    }
+
+    // Cache invalidation for every write path, including the bulk JPQL delete
+    private void evictHelpingToolsCache(Long userId) {
+        Cache cache = cacheManager.getCache(CacheConfig.HELPING_TOOLS_BY_USER);
+        if (cache != null) {
+            cache.evict(userId);
+        }
     }
 
     // Utility methods
@@ -0,0 +1,189 @@
+package com.fiteasy.service;
+
+import com.fiteasy.config.CacheConfig;
+import com.fiteasy.repository.HelpingToolRepository;
+import com.fiteasy.repository.WorkoutPlanRepository;
+import com.fiteasy.search.HelpingToolSearchIndex;
+import com.fiteasy.search.WorkoutPlanNameIndex;
+import com.fiteasy.util.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Removes workout plans and helping tools whose user no longer exists (there
+ * are no foreign keys to do it). Each table is walked in id order one batch at
+ * a time; the batch's orphans are found with a NOT EXISTS anti-join and
+ * deleted in their own small transaction. Batches are paced so a sweep never
+ * runs faster than the configured rate, and a run stops once it has deleted
+ * max-deletes rows - the next run starts over and finds the rest.
+ *
+ * A user marked deleted but not yet purged still exists for the anti-join
+ * (native SQL, so User's @SQLRestriction does not apply): their rows belong
+ * to UserPurger, and the two jobs never delete the same rows.
+ */
+@Component
+public class OrphanSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(OrphanSweeper.class);
+
+    @Autowired
+    private WorkoutPlanRepository workoutPlanRepository;
+
+    @Autowired
+    private HelpingToolRepository helpingToolRepository;
+
+    @Autowired
+    private WorkoutPlanNameIndex nameIndex;
+
+    @Autowired
+    private HelpingToolSearchIndex searchIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Rows scanned per batch
+    @Value("${app.orphans.sweep.batch-size:500}")
+    private int batchSize = 500;
+
+    // 0 means unpaced
+    @Value("${app.orphans.sweep.batches-per-second:10}")
+    private int batchesPerSecond = 10;
+
+    // Upper bound on rows deleted per table in one run
+    @Value("${app.orphans.sweep.max-deletes:50000}")
+    private long maxDeletes = 50000;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public record SweepReport(String table, long scanned, long reclaimed, long millis) {
+    }
+
+    @Scheduled(cron = "${app.orphans.sweep.cron:0 0 5 * * *}")
+    public void scheduledSweep() {
+        sweepAll();
+    }
+
+    // Returns one report per table, or an empty list when a sweep is already running
+    public List<SweepReport> sweepAll() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Orphan sweep already running, skipping");
+            return List.of();
+        }
+        try {
+            return List.of(sweepWorkoutPlans(), sweepHelpingTools());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    SweepReport sweepWorkoutPlans() {
+        return sweep("workout_plans", workoutPlanRepository::findIdsAfter, workoutPlanRepository::findOrphansInRange,
+                orphans -> {
+                    List<Long> ids = orphans.stream().map(WorkoutPlanRepository.PlanOwner::getId).toList();
+                    int deleted = workoutPlanRepository.deleteByIdIn(ids);
+                    orphans.stream().map(WorkoutPlanRepository.PlanOwner::getUserId).distinct()
+                            .forEach(userId -> evict(CacheConfig.WORKOUT_PLANS_BY_USER, userId));
+                    AfterCommit.run(() -> orphans.forEach(plan -> nameIndex.remove(plan.getId(), plan.getUserId())));
+                    return deleted;
+                });
+    }
+
+    SweepReport sweepHelpingTools() {
+        return sweep("helping_tools", helpingToolRepository::findIdsAfter, helpingToolRepository::findOrphansInRange,
+                orphans -> {
+                    List<Long> ids = orphans.stream().map(HelpingToolRepository.ToolOwner::getId).toList();
+                    int deleted = helpingToolRepository.deleteByIdIn(ids);
+                    orphans.stream().map(HelpingToolRepository.ToolOwner::getUserId).distinct()
+                            .forEach(userId -> evict(CacheConfig.HELPING_TOOLS_BY_USER, userId));
+                    AfterCommit.run(() -> ids.forEach(searchIndex::remove));
+                    return deleted;
+                });
+    }
+
+    private <T> SweepReport sweep(String table, BiFunction<Long, Limit, List<Long>> idsAfter,
+                                  BiFunction<Long, Long, List<T>> orphansInRange, ToLongFunction<List<T>> delete) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Counter scannedRows = counter("app.orphans.scanned", "Rows checked for a missing user", table);
+        Counter reclaimedRows = counter("app.orphans.reclaimed", "Orphaned rows deleted", table);
+        long pace = batchesPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / batchesPerSecond : 0;
+        long started = System.currentTimeMillis();
+        long scanned = 0;
+        long reclaimed = 0;
+
+        long afterId = 0L;
+        while (reclaimed < maxDeletes) {
+            long batchStarted = System.nanoTime();
+            List<Long> ids = idsAfter.apply(afterId, Limit.of(batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            long from = afterId;
+            long upTo = ids.get(ids.size() - 1);
+            Long deleted = transaction.execute(status -> {
+                List<T> orphans = orphansInRange.apply(from, upTo);
+                return orphans.isEmpty() ? 0L : delete.applyAsLong(orphans);
+            });
+
+            scanned += ids.size();
+            scannedRows.increment(ids.size());
+            if (deleted != null && deleted > 0) {
+                reclaimed += deleted;
+                reclaimedRows.increment(deleted);
+            }
+            afterId = upTo;
+            pace(batchStarted, pace);
+        }
+
+        SweepReport report = new SweepReport(table, scanned, reclaimed, System.currentTimeMillis() - started);
+        log.info("Orphan sweep of {}: scanned {} rows, reclaimed {} in {} ms", table, scanned, reclaimed, report.millis());
+        return report;
+    }
+
+    // Sleeps out the rest of the batch's time slot
+    private static void pace(long batchStarted, long nanosPerBatch) {
+        long remaining = nanosPerBatch - (System.nanoTime() - batchStarted);
+        if (remaining <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Orphan sweep interrupted", e);
+        }
+    }
+
+    private Counter counter(String name, String description, String table) {
+        return Counter.builder(name).description(description).tag("table", table).register(meterRegistry);
+    }
+
+    private void evict(String cacheName, Long userId) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(userId);
+        }
+    }
+}
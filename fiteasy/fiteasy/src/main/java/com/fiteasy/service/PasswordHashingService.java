@@ -0,0 +1,159 @@
+package com.fiteasy.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Runs BCrypt hashing and verification on a small CPU-sized pool instead of
+ * the request threads. The pool has a bounded queue; when it is full the
+ * call fails fast with {@link SaturatedException}, which the controllers turn
+ * into 503 with Retry-After, so a login storm sheds load instead of piling up
+ * requests that each burn a core.
+ */
+@Service
+public class PasswordHashingService {
+
+    // $2a$, $2b$ or $2y$ followed by the two-digit cost; anything else is a legacy plain-text password
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./A-Za-z0-9]{53}$");
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0 means one thread per available processor
+    @Value("${app.password.hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.password.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.password.hashing.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    private ThreadPoolExecutor executor;
+
+    private Timer queueWait;
+
+    @PostConstruct
+    void start() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        queueWait = Timer.builder("app.password.queue.wait")
+                .description("Time a hashing task spent queued before a worker picked it up")
+                .register(meterRegistry);
+        Gauge.builder("app.password.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Hashing tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("app.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing tasks currently running")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public String hash(String rawPassword) {
+        return run("hash", () -> passwordEncoder.encode(rawPassword));
+    }
+
+    // Plain-text passwords stored before hashing was introduced are compared directly
+    public boolean matches(String rawPassword, String storedPassword) {
+        if (rawPassword == null || storedPassword == null) {
+            return false;
+        }
+        if (!isHashed(storedPassword)) {
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8), storedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+        return run("verify", () -> passwordEncoder.matches(rawPassword, storedPassword));
+    }
+
+    // True for legacy plain-text passwords and for hashes made with a lower cost than the configured one
+    public boolean needsRehash(String storedPassword) {
+        return !isHashed(storedPassword) || passwordEncoder.upgradeEncoding(storedPassword);
+    }
+
+    static boolean isHashed(String storedPassword) {
+        return storedPassword != null && BCRYPT_HASH.matcher(storedPassword).matches();
+    }
+
+    private <T> T run(String operation, Callable<T> task) {
+        long queuedAt = System.nanoTime();
+        Timer latency = Timer.builder("app.password.hashing")
+                .description("Time spent hashing or verifying a password on a worker")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return latency.recordCallable(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected(operation);
+            throw new SaturatedException();
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected(operation);
+            throw new SaturatedException();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SaturatedException();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password " + operation + " failed", e.getCause());
+        }
+    }
+
+    private void rejected(String operation) {
+        Counter.builder("app.password.rejected")
+                .description("Hashing requests shed because the queue was full or the wait timed out")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // Thrown when the hashing pool is saturated; callers should answer 503 with Retry-After
+    public static class SaturatedException extends RuntimeException {
+        public SaturatedException() {
+            super("Server is busy, please try again");
+        }
+    }
+}
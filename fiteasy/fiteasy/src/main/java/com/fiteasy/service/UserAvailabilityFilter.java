@@ -0,0 +1,200 @@
+package com.fiteasy.service;
+
+import com.fiteasy.repository.UserRepository;
+import com.fiteasy.util.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters over all usernames and emails, so the signup availability
+ * checks can answer "available" without a query. Only a possible match falls
+ * through to the repository. Values are added before the insert commits, so
+ * a filter can only err towards "maybe taken". Deleted or changed values stay
+ * in the filter until the next rebuild, which also resizes it. Values added
+ * while a rebuild streams are recorded and replayed into the new filters
+ * before they replace the old ones.
+ */
+@Component
+public class UserAvailabilityFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserAvailabilityFilter.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.availability.expected-users:1000000}")
+    private long expectedUsers;
+
+    @Value("${app.availability.false-positive-probability:0.01}")
+    private double falsePositiveProbability;
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+    }
+
+    private record Addition(String username, String email) {
+    }
+
+    // Null until the first build has finished; every check then falls through to the database
+    private volatile Filters current;
+
+    // Non-null while a rebuild is streaming; guarded by swapLock so an add() is either
+    // recorded here or lands in the filters the rebuild publishes, never lost between them
+    private Queue<Addition> pending;
+
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    void registerMetrics() {
+        registerGauges("username", Filters::usernames);
+        registerGauges("email", Filters::emails);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.availability.rebuild-cron:0 0 4 * * *}")
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        long size = Math.max(expectedUsers, userRepository.count() * 2);
+        Filters next = new Filters(new BloomFilter(size, falsePositiveProbability), new BloomFilter(size, falsePositiveProbability));
+        Queue<Addition> additions = new ConcurrentLinkedQueue<>();
+        Lock swap = swapLock.writeLock();
+        // Start recording before the stream opens its snapshot, so a registration committed
+        // after the snapshot is replayed below. One whose add() ran just before this line
+        // can still be missed; its insert then fails on the unique index instead.
+        swap.lock();
+        try {
+            pending = additions;
+        } finally {
+            swap.unlock();
+        }
+        boolean streamed = false;
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<UserRepository.UserKeys> keys = userRepository.streamUsernamesAndEmails()) {
+                    keys.forEach(key -> {
+                        next.usernames().add(normalize(key.getUsername()));
+                        next.emails().add(normalize(key.getEmail()));
+                    });
+                }
+            });
+            streamed = true;
+        } finally {
+            swap.lock();
+            try {
+                if (streamed) {
+                    additions.forEach(addition -> addTo(next, addition.username(), addition.email()));
+                    current = next;
+                }
+                pending = null;
+            } finally {
+                swap.unlock();
+            }
+        }
+        log.info("Built username/email availability filters for {} users ({} KiB each) in {} ms",
+                next.usernames().insertions(), next.usernames().memoryBytes() / 1024, System.currentTimeMillis() - started);
+    }
+
+    // Call before the user row is inserted or its email changed
+    public void add(String username, String email) {
+        Lock swap = swapLock.readLock();
+        swap.lock();
+        try {
+            addTo(current, username, email);
+            if (pending != null) {
+                pending.add(new Addition(username, email));
+            }
+        } finally {
+            swap.unlock();
+        }
+    }
+
+    // False means the username is definitely not taken
+    public boolean mightContainUsername(String username) {
+        Filters filters = current;
+        return filters == null || filters.usernames().mightContain(normalize(username));
+    }
+
+    public boolean mightContainEmail(String email) {
+        Filters filters = current;
+        return filters == null || filters.emails().mightContain(normalize(email));
+    }
+
+    // Records the outcome of a check, so the observed false-positive rate can be compared with the expected one
+    public void recordCheck(String field, boolean filtered, boolean exists) {
+        String result = filtered ? "filtered" : exists ? "exists" : "false_positive";
+        meterRegistry.counter("app.availability.checks", "field", field, "result", result).increment();
+    }
+
+    /**
+     * Folds values the way MySQL's default case- and accent-insensitive collation compares them,
+     * so two values the unique index treats as equal always hit the same bits.
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        return folded.toLowerCase(Locale.ROOT).replace("ß", "ss").stripTrailing();
+    }
+
+    private static void addTo(Filters filters, String username, String email) {
+        if (filters != null) {
+            if (username != null) {
+                filters.usernames().add(normalize(username));
+            }
+            if (email != null) {
+                filters.emails().add(normalize(email));
+            }
+        }
+    }
+
+    private void registerGauges(String field, Function<Filters, BloomFilter> filter) {
+        gauge("app.availability.bloom.fpp", null, "Expected false-positive probability",
+                field, filter, BloomFilter::expectedFalsePositiveProbability);
+        gauge("app.availability.bloom.memory", "bytes", "Bloom filter size",
+                field, filter, BloomFilter::memoryBytes);
+        gauge("app.availability.bloom.insertions", null, "Values added since the last rebuild",
+                field, filter, BloomFilter::insertions);
+    }
+
+    private void gauge(String name, String baseUnit, String description, String field,
+                       Function<Filters, BloomFilter> filter, ToDoubleFunction<BloomFilter> value) {
+        Gauge.builder(name, this, availability -> {
+                    Filters filters = availability.current;
+                    return filters == null ? Double.NaN : value.applyAsDouble(filter.apply(filters));
+                })
+                .baseUnit(baseUnit)
+                .description(description)
+                .tag("field", field)
+                .register(meterRegistry);
+    }
+}
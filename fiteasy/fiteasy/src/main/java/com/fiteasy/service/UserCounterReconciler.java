@@ -0,0 +1,138 @@
+package com.fiteasy.service;
+
+import com.fiteasy.model.HelpingTool;
+import com.fiteasy.model.UserCounter;
+import com.fiteasy.repository.HelpingToolRepository;
+import com.fiteasy.repository.UserCounterRepository;
+import com.fiteasy.repository.UserRepository;
+import com.fiteasy.repository.WorkoutPlanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Rebuilds the user_counters read model from workout_plans and helping_tools.
+ * Users are walked in id order and each chunk is recounted in its own
+ * transaction on a small worker pool.
+ */
+@Component
+public class UserCounterReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCounterReconciler.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCounterRepository userCounterRepository;
+
+    @Autowired
+    private WorkoutPlanRepository workoutPlanRepository;
+
+    @Autowired
+    private HelpingToolRepository helpingToolRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.counters.reconcile.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.counters.reconcile.threads:4}")
+    private int threads;
+
+    @Scheduled(cron = "${app.counters.reconcile.cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        reconcileAll();
+    }
+
+    // Returns the number of users whose counters were rebuilt
+    public long reconcileAll() {
+        long started = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> chunks = new ArrayList<>();
+            long afterId = 0L;
+            List<Long> userIds = userRepository.findIdsAfter(afterId, Limit.of(chunkSize));
+            while (!userIds.isEmpty()) {
+                List<Long> chunk = userIds;
+                chunks.add(executor.submit(() -> reconcileChunk(chunk)));
+                afterId = chunk.get(chunk.size() - 1);
+                userIds = userRepository.findIdsAfter(afterId, Limit.of(chunkSize));
+            }
+
+            long reconciled = 0;
+            for (Future<Integer> chunk : chunks) {
+                reconciled += chunk.get();
+            }
+            log.info("Reconciled counters for {} users in {} ms", reconciled, System.currentTimeMillis() - started);
+            return reconciled;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Counter reconciliation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Counter reconciliation failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Recount one chunk of users in a single transaction
+    public int reconcileChunk(List<Long> userIds) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Integer reconciled = transaction.execute(status -> {
+            // Lock existing rows first so concurrent increments wait for the rebuilt values
+            Map<Long, UserCounter> counters = userCounterRepository.findAllForUpdate(userIds).stream()
+                    .collect(Collectors.toMap(UserCounter::getUserId, Function.identity()));
+
+            // Missing rows go through the same upsert as UserCounterService, then get locked too,
+            // so a racing first increment neither hits a duplicate key nor is overwritten
+            List<Long> missing = userIds.stream().filter(userId -> !counters.containsKey(userId)).toList();
+            if (!missing.isEmpty()) {
+                missing.forEach(userCounterRepository::insertIfAbsent);
+                userCounterRepository.findAllForUpdate(missing).forEach(counter -> counters.put(counter.getUserId(), counter));
+            }
+
+            Map<Long, WorkoutPlanRepository.UserPlanCounts> planCounts = workoutPlanRepository.countByUserIds(userIds).stream()
+                    .collect(Collectors.toMap(WorkoutPlanRepository.UserPlanCounts::getUserId, Function.identity()));
+
+            Map<Long, Map<HelpingTool.ToolType, Long>> toolCounts = new HashMap<>();
+            for (HelpingToolRepository.UserToolCounts row : helpingToolRepository.countByUserIdsAndType(userIds)) {
+                toolCounts.computeIfAbsent(row.getUserId(), id -> new HashMap<>()).put(row.getType(), row.getTotal());
+            }
+
+            List<UserCounter> rebuilt = new ArrayList<>(userIds.size());
+            for (Long userId : userIds) {
+                UserCounter counter = counters.get(userId);
+                WorkoutPlanRepository.UserPlanCounts plans = planCounts.get(userId);
+                Map<HelpingTool.ToolType, Long> tools = toolCounts.getOrDefault(userId, Map.of());
+
+                counter.setWorkoutPlans(plans != null ? plans.getWorkoutPlans() : 0);
+                counter.setBmiResults(plans != null ? plans.getBmiResults() : 0);
+                counter.setYoutubeTools(tools.getOrDefault(HelpingTool.ToolType.youtube, 0L));
+                counter.setEquipmentTools(tools.getOrDefault(HelpingTool.ToolType.equipment, 0L));
+                rebuilt.add(counter);
+            }
+            userCounterRepository.saveAll(rebuilt);
+            return rebuilt.size();
+        });
+        return reconciled != null ? reconciled : 0;
+    }
+}
@@ -0,0 +1,123 @@
+package com.fiteasy.service;
+
+import com.fiteasy.model.HelpingTool;
+import com.fiteasy.model.UserCounter;
+import com.fiteasy.repository.UserCounterRepository;
+import com.fiteasy.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Maintains the user_counters read model. Every method joins the caller's
+ * transaction, so counters commit or roll back together with the rows they count.
+ */
+@Service
+@Transactional
+public class UserCounterService {
+
+    @Autowired
+    private UserCounterRepository userCounterRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Create an empty counter row for a newly registered user
+    public void initializeCounters(Long userId) {
+        userCounterRepository.insertIfAbsent(userId);
+    }
+
+    // Workout plans
+    public void workoutPlanAdded(Long userId, boolean withBmi) {
+        adjust(userId, 1, withBmi ? 1 : 0, 0, 0);
+    }
+
+    public void workoutPlansAdded(Long userId, long count, long withBmi) {
+        adjust(userId, count, withBmi, 0, 0);
+    }
+
+    public void workoutPlanRemoved(Long userId, boolean withBmi) {
+        adjust(userId, -1, withBmi ? -1 : 0, 0, 0);
+    }
+
+    public void bmiResultChanged(Long userId, boolean hadBmi, boolean hasBmi) {
+        if (hadBmi != hasBmi) {
+            adjust(userId, 0, hasBmi ? 1 : -1, 0, 0);
+        }
+    }
+
+    public void workoutPlansCleared(Long userId) {
+        if (userCounterRepository.clearWorkoutPlans(userId) == 0) {
+            rebuildCounters(userId);
+        }
+    }
+
+    // Helping tools
+    public void helpingToolAdded(Long userId, HelpingTool.ToolType type) {
+        helpingToolsAdjusted(userId, type, 1);
+    }
+
+    public void helpingToolRemoved(Long userId, HelpingTool.ToolType type) {
+        helpingToolsAdjusted(userId, type, -1);
+    }
+
+    public void helpingToolsRemoved(Long userId, HelpingTool.ToolType type, long count) {
+        if (count > 0) {
+            helpingToolsAdjusted(userId, type, -count);
+        }
+    }
+
+    public void helpingToolTypeChanged(Long userId, HelpingTool.ToolType from, HelpingTool.ToolType to) {
+        if (from != to) {
+            adjust(userId, 0, 0, toolDelta(from, HelpingTool.ToolType.youtube, -1) + toolDelta(to, HelpingTool.ToolType.youtube, 1),
+                    toolDelta(from, HelpingTool.ToolType.equipment, -1) + toolDelta(to, HelpingTool.ToolType.equipment, 1));
+        }
+    }
+
+    public void helpingToolsCleared(Long userId) {
+        if (userCounterRepository.clearHelpingTools(userId) == 0) {
+            rebuildCounters(userId);
+        }
+    }
+
+    // Read counters, rebuilding the row for users created before the read model existed
+    public Optional<UserCounter> getCounters(Long userId) {
+        Optional<UserCounter> counter = userCounterRepository.findById(userId);
+        return counter.isPresent() ? counter : rebuildCounters(userId);
+    }
+
+    // Recount a single user from the source tables. Rebuilds of one user run one after another under
+    // the user's row lock (H2's MERGE, unlike MySQL's upsert, does not wait for a concurrent insert),
+    // and the counts are read inside the UPDATE, so an increment committed meanwhile is counted
+    // instead of being overwritten with this transaction's snapshot
+    public Optional<UserCounter> rebuildCounters(Long userId) {
+        if (userRepository.findByIdForUpdate(userId).isEmpty()) {
+            return Optional.empty();
+        }
+        userCounterRepository.insertIfAbsent(userId);
+        userCounterRepository.recountCounters(userId, HelpingTool.ToolType.youtube, HelpingTool.ToolType.equipment);
+        return userCounterRepository.findById(userId);
+    }
+
+    public void deleteCounters(Long userId) {
+        userCounterRepository.deleteById(userId);
+    }
+
+    private void helpingToolsAdjusted(Long userId, HelpingTool.ToolType type, long delta) {
+        adjust(userId, 0, 0, toolDelta(type, HelpingTool.ToolType.youtube, delta),
+                toolDelta(type, HelpingTool.ToolType.equipment, delta));
+    }
+
+    private long toolDelta(HelpingTool.ToolType type, HelpingTool.ToolType counted, long delta) {
+        return type == counted ? delta : 0;
+    }
+
+    // A missing row is rebuilt from scratch - the count already includes the current change
+    private void adjust(Long userId, long workoutPlans, long bmiResults, long youtubeTools, long equipmentTools) {
+        if (userCounterRepository.adjustCounters(userId, workoutPlans, bmiResults, youtubeTools, equipmentTools) == 0) {
+            rebuildCounters(userId);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.fiteasy.service;
+
+import com.fiteasy.config.CacheConfig;
+import com.fiteasy.repository.HelpingToolRepository;
+import com.fiteasy.repository.UserRepository;
+import com.fiteasy.repository.WorkoutPlanRepository;
+import com.fiteasy.search.HelpingToolSearchIndex;
+import com.fiteasy.search.WorkoutPlanNameIndex;
+import com.fiteasy.util.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Second half of user deletion. UserService only marks the user deleted; this
+ * removes their workout plans and helping tools in small chunks, each in its
+ * own short transaction, then the users row itself. One user is purged at a
+ * time on a single background thread. Nothing is tracked outside the tables:
+ * a user still marked deleted is simply purged again, so a crash or a failed
+ * chunk is picked up on the next start or sweep.
+ */
+@Component
+public class UserPurger {
+
+    private static final Logger log = LoggerFactory.getLogger(UserPurger.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkoutPlanRepository workoutPlanRepository;
+
+    @Autowired
+    private HelpingToolRepository helpingToolRepository;
+
+    @Autowired
+    private WorkoutPlanNameIndex nameIndex;
+
+    @Autowired
+    private HelpingToolSearchIndex searchIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.users.purge.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    // Pause between chunks so a large purge leaves room for live traffic
+    @Value("${app.users.purge.chunk-pause:50ms}")
+    private Duration chunkPause = Duration.ofMillis(50);
+
+    // Users queued or being purged by this instance
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService executor;
+
+    private Counter usersPurged;
+
+    private Counter failures;
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("app.users.purge.pending", pending, Set::size)
+                .description("Deleted users whose data is queued or being purged")
+                .register(meterRegistry);
+        usersPurged = Counter.builder("app.users.purge.completed")
+                .description("Deleted users whose data has been fully purged")
+                .register(meterRegistry);
+        failures = Counter.builder("app.users.purge.failures")
+                .description("Purges that stopped on an error and wait for the next sweep")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    // Called from the transaction that marks the user deleted
+    public void userDeleted(Long userId) {
+        evict(CacheConfig.WORKOUT_PLANS_BY_USER, userId);
+        evict(CacheConfig.HELPING_TOOLS_BY_USER, userId);
+        AfterCommit.run(() -> {
+            nameIndex.removeByUserId(userId);
+            searchIndex.removeByUserId(userId);
+            schedule(userId);
+        });
+    }
+
+    // Resume purges interrupted by a shutdown or crash, and retry failed ones
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        List<Long> deleted = userRepository.findDeletedIds();
+        if (!deleted.isEmpty()) {
+            log.info("Resuming purge of {} deleted users", deleted.size());
+            deleted.forEach(this::schedule);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.users.purge.sweep-interval:15m}",
+            initialDelayString = "${app.users.purge.sweep-interval:15m}")
+    public void sweep() {
+        userRepository.findDeletedIds().forEach(this::schedule);
+    }
+
+    void schedule(Long userId) {
+        if (!pending.add(userId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    purge(userId);
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    log.warn("Purge of deleted user {} failed, will retry on the next sweep", userId, e);
+                } finally {
+                    pending.remove(userId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(userId);
+        }
+    }
+
+    /**
+     * Purges one deleted user's data, chunk by chunk, then the user row.
+     * Returns the number of rows deleted; safe to call again after a failure.
+     */
+    public long purge(Long userId) {
+        long plans = purgeChunks("workout_plans",
+                id -> workoutPlanRepository.findIdsByUserId(id, Limit.of(chunkSize)), workoutPlanRepository::deleteByIdIn, userId);
+        long tools = purgeChunks("helping_tools",
+                id -> helpingToolRepository.findIdsByUserId(id, Limit.of(chunkSize)), helpingToolRepository::deleteByIdIn, userId);
+
+        if (userRepository.purgeDeleted(userId) > 0) {
+            usersPurged.increment();
+            log.info("Purged deleted user {}: {} workout plans, {} helping tools", userId, plans, tools);
+        }
+        return plans + tools;
+    }
+
+    // Deletes the user's rows in `table` one chunk per transaction until none are left
+    private long purgeChunks(String table, Function<Long, List<Long>> nextChunk,
+                             ToIntFunction<Collection<Long>> delete, Long userId) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Counter rows = Counter.builder("app.users.purge.rows")
+                .description("Rows removed while purging deleted users")
+                .tag("table", table)
+                .register(meterRegistry);
+        Timer chunkTimer = Timer.builder("app.users.purge.chunk")
+                .description("Time to delete one chunk of a deleted user's rows")
+                .tag("table", table)
+                .register(meterRegistry);
+
+        long total = 0;
+        while (true) {
+            Integer deleted = chunkTimer.record(() -> transaction.execute(status -> {
+                List<Long> ids = nextChunk.apply(userId);
+                return ids.isEmpty() ? null : delete.applyAsInt(ids);
+            }));
+            if (deleted == null) {
+                return total;
+            }
+            total += deleted;
+            rows.increment(deleted);
+            pause();
+        }
+    }
+
+    private void pause() {
+        if (chunkPause.isZero() || chunkPause.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(chunkPause.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("User purge interrupted", e);
+        }
+    }
+
+    private void evict(String cacheName, Long userId) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(userId);
+        }
+    }
+}
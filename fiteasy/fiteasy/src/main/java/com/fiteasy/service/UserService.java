@@ -1,35 +1,80 @@
 package com.fiteasy.service;
 
+import com.fiteasy.config.CacheConfig;
+import com.fiteasy.model.HelpingTool;
 import com.fiteasy.model.User;
+import com.fiteasy.model.UserCounter;
+import com.fiteasy.repository.UserDashboardCounts;
 import com.fiteasy.repository.UserRepository;
-import com.fiteasy.repository.WorkoutPlanRepository;
-import com.fiteasy.repository.HelpingToolRepository;
+import com.fiteasy.util.CursorPage;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 @Service
 @Transactional
 public class UserService {
 
+    // More comprehensive email validation regex, compiled once instead of on every String.matches call
+    static final String EMAIL_REGEX = "^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})$";
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(EMAIL_REGEX);
+
+    private static final String USERNAME_TAKEN = "Username already exists. Please choose a different username.";
+    private static final String EMAIL_TAKEN = "Email already exists. Please use a different email address.";
+
+    // Username and email of a deleted user awaiting purge; no signup can produce them
+    static final String DELETED_PREFIX = "deleted:";
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private WorkoutPlanRepository workoutPlanRepository;
+    private UserCounterService userCounterService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private UserAvailabilityFilter availabilityFilter;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     @Autowired
-    private HelpingToolRepository helpingToolRepository;
+    private UserPurger userPurger;
 
     // PAGE 3: SIGNUP PAGE - Register new user
+    // Hashing happens before the insert transaction opens, so no connection is held while BCrypt runs
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User registerUser(User user) {
         validateUserRegistration(user);
-        return userRepository.save(user);
+        user.setPassword(passwordHashingService.hash(user.getPassword()));
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            availabilityFilter.add(user.getUsername(), user.getEmail());
+            User savedUser = insertUser(user);
+            userCounterService.initializeCounters(savedUser.getId());
+            return savedUser;
+        });
     }
 
     // Comprehensive user registration validation
@@ -45,6 +90,9 @@ public class UserService {
         if (user.getUsername() == null || user.getUsername().trim().isEmpty()) {
             throw new RuntimeException("Username is required");
         }
+        if (user.getUsername().startsWith(DELETED_PREFIX)) {
+            throw new RuntimeException(USERNAME_TAKEN);
+        }
         if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
             throw new RuntimeException("Email is required");
         }
@@ -53,16 +101,36 @@ public class UserService {
         }
     }
 
-    // Validate unique constraints
+    // Validate unique constraints - one query for both columns
     private void validateUniqueConstraints(User user) {
-        if (userRepository.existsByUsername(user.getUsername())) {
-            throw new RuntimeException("Username already exists. Please choose a different username.");
+        UserRepository.UniqueConflicts conflicts = userRepository.findUniqueConflicts(user.getUsername(), user.getEmail());
+        if (conflicts != null && conflicts.usernameTaken()) {
+            throw new RuntimeException(USERNAME_TAKEN);
+        }
+        if (conflicts != null && conflicts.emailTaken()) {
+            throw new RuntimeException(EMAIL_TAKEN);
         }
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new RuntimeException("Email already exists. Please use a different email address.");
+    }
+
+    // Flush the insert here so a signup racing past the check hits the unique index inside this method
+    private User insertUser(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException(isEmailViolation(e, user.getEmail()) ? EMAIL_TAKEN : USERNAME_TAKEN);
         }
     }
 
+    // The unique indexes are unnamed, so look for the column in the constraint name or the duplicate value in the message
+    private boolean isEmailViolation(DataIntegrityViolationException e, String email) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation ? violation.getConstraintName() : null;
+        if (constraint != null && constraint.toLowerCase(Locale.ROOT).contains("email")) {
+            return true;
+        }
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && email != null && message.contains("'" + email + "'");
+    }
+
     // Email format validation
     private void validateEmailFormat(String email) {
         if (!isValidEmail(email)) {
@@ -77,18 +145,16 @@ public class UserService {
         }
     }
 
-    // Email validation helper method
-    private boolean isValidEmail(String email) {
+    // Email validation helper method (package-private for the JMH benchmarks)
+    boolean isValidEmail(String email) {
         if (email == null || email.trim().isEmpty()) {
             return false;
         }
-        // More comprehensive email validation regex
-        String emailRegex = "^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})$";
-        return email.matches(emailRegex);
+        return EMAIL_PATTERN.matcher(email).matches();
     }
 
     // Password strength validation helper method
-    private boolean isValidPassword(String password) {
+    boolean isValidPassword(String password) {
         if (password == null || password.trim().isEmpty()) {
             return false;
         }
@@ -96,6 +162,8 @@ public class UserService {
     }
 
     // PAGE 2: LOGIN PAGE - Authenticate user
+    // Verification runs on the hashing pool outside any transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<User> authenticateUser(String username, String password) {
         if (username == null || username.trim().isEmpty()) {
             return Optional.empty();
@@ -105,10 +173,33 @@ public class UserService {
             return Optional.empty();
         }
 
-        return userRepository.findByUsernameAndPassword(username, password);
+        Optional<User> user = userRepository.findByUsername(username);
+        if (user.isEmpty() || !passwordHashingService.matches(password, user.get().getPassword())) {
+            return Optional.empty();
+        }
+        upgradePasswordHash(user.get(), password);
+        return user;
+    }
+
+    // Legacy plain-text passwords and hashes below the configured cost are rehashed on a successful login
+    private void upgradePasswordHash(User user, String password) {
+        String stored = user.getPassword();
+        if (!passwordHashingService.needsRehash(stored)) {
+            return;
+        }
+        try {
+            String upgraded = passwordHashingService.hash(password);
+            if (userRepository.updatePassword(user.getId(), stored, upgraded) == 1) {
+                user.setPassword(upgraded);
+            }
+        } catch (PasswordHashingService.SaturatedException e) {
+            // The pool is busy - the login still succeeds and the upgrade waits for the next one
+        }
     }
 
     // PAGE 5: USER DETAILS PAGE - Get user by ID
+    // Read-write on purpose: cache fills read the primary, a lagging replica would cache a stale row
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#id", unless = "#result == null")
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
@@ -131,6 +222,7 @@ public class UserService {
             if (userRepository.existsByEmail(userDetails.getEmail())) {
                 throw new RuntimeException("Email already exists");
             }
+            availabilityFilter.add(null, userDetails.getEmail());
             user.setEmail(userDetails.getEmail());
         }
 
@@ -158,84 +250,120 @@ public class UserService {
             user.setGoals(userDetails.getGoals());
         }
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        evictUserCache(id);
+        return savedUser;
     }
 
     // PAGE 5: USER DETAILS PAGE - Delete user
+    // The user is only marked deleted here; UserPurger removes their plans and tools in the background.
+    // The row holds the unique keys until then, so they are tombstoned for a new signup to reuse at once
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
 
-        // Cascade delete will handle related records
-        userRepository.delete(user);
+        user.setDeletedAt(LocalDateTime.now());
+        user.setUsername(DELETED_PREFIX + id);
+        user.setEmail(DELETED_PREFIX + id);
+        userRepository.save(user);
+        userCounterService.deleteCounters(id);
+        evictUserCache(id);
+        userPurger.userDeleted(id);
     }
 
-    // PAGE 4: DASHBOARD - Get counts
-    public Map<String, Object> getUserCounts(Long userId) {
-        Map<String, Object> counts = new HashMap<>();
-
-        // Check if user exists
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (!userOpt.isPresent()) {
-            throw new RuntimeException("User not found");
-        }
-
-        User user = userOpt.get();
-
-        // Count user details (profile completion)
-        int userDetailsCount = 0;
-        if (user.getName() != null && !user.getName().trim().isEmpty()) {
-            userDetailsCount = 1;
+    private void evictUserCache(Long id) {
+        Cache cache = cacheManager.getCache(CacheConfig.USERS);
+        if (cache != null) {
+            cache.evict(id);
         }
+    }
 
-        // Count BMI results
-        long bmiResults = workoutPlanRepository.countByUserIdAndBmiDataIsNotNull(userId);
+    // PAGE 4: DASHBOARD - Get counts
+    @Transactional(readOnly = true)
+    public Map<String, Object> getUserCounts(Long userId) {
+        // Primary key lookups on user_counters, falling back to counting for users without a counter row yet
+        UserDashboardCounts dashboardCounts = userRepository.findDashboardCountsFromCounters(userId)
+                .or(() -> userRepository.findDashboardCounts(userId, HelpingTool.ToolType.youtube, HelpingTool.ToolType.equipment))
+                .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Count workout plans
-        long workoutPlans = workoutPlanRepository.countByUserId(userId);
+        long youtubeTools = dashboardCounts.getYoutubeTools();
+        long equipmentTools = dashboardCounts.getEquipmentTools();
 
-        counts.put("userDetails", userDetailsCount);
-        counts.put("bmiResults", (int) bmiResults);
-        counts.put("workoutPlans", (int) workoutPlans);
+        Map<String, Object> counts = new HashMap<>();
+        counts.put("userDetails", dashboardCounts.getUserDetails());
+        counts.put("bmiResults", dashboardCounts.getBmiResults().intValue());
+        counts.put("workoutPlans", dashboardCounts.getWorkoutPlans().intValue());
+        counts.put("youtubeTools", (int) youtubeTools);
+        counts.put("equipmentTools", (int) equipmentTools);
+        counts.put("helpingTools", (int) (youtubeTools + equipmentTools));
 
         return counts;
     }
 
     // Utility methods
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    // Keyset paginated version of getAllUsers - bounded memory per request
+    @Transactional(readOnly = true)
+    public CursorPage<User> getUsersPage(String cursor, Integer size) {
+        int pageSize = CursorPage.pageSize(size);
+        List<User> rows = userRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, User::getId);
+    }
+
+    // Signup availability checks - a Bloom filter miss answers "available" without a query
+    @Transactional(readOnly = true)
     public boolean usernameExists(String username) {
-        return userRepository.existsByUsername(username);
+        if (!availabilityFilter.mightContainUsername(username)) {
+            availabilityFilter.recordCheck("username", true, false);
+            return false;
+        }
+        boolean exists = userRepository.existsByUsername(username);
+        availabilityFilter.recordCheck("username", false, exists);
+        return exists;
     }
 
+    @Transactional(readOnly = true)
     public boolean emailExists(String email) {
-        return userRepository.existsByEmail(email);
+        if (!availabilityFilter.mightContainEmail(email)) {
+            availabilityFilter.recordCheck("email", true, false);
+            return false;
+        }
+        boolean exists = userRepository.existsByEmail(email);
+        availabilityFilter.recordCheck("email", false, exists);
+        return exists;
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
 
-    // Get user statistics
+    // Get user statistics - read-write, getCounters may rebuild a missing counter row
     public Map<String, Object> getUserStatistics(Long userId) {
         Map<String, Object> stats = new HashMap<>();
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        UserCounter counters = userCounterService.getCounters(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
 
         stats.put("username", user.getUsername());
         stats.put("name", user.getName());
         stats.put("email", user.getEmail());
         stats.put("age", user.getAge());
         stats.put("memberSince", user.getCreatedAt());
-        stats.put("totalWorkoutPlans", workoutPlanRepository.countByUserId(userId));
-        stats.put("totalHelpingTools", helpingToolRepository.countByUserId(userId));
+        stats.put("totalWorkoutPlans", counters.getWorkoutPlans());
+        stats.put("totalHelpingTools", counters.getHelpingTools());
 
         return stats;
     }
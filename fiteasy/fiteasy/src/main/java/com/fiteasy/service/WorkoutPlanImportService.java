@@ -0,0 +1,321 @@
+package com.fiteasy.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fiteasy.model.WorkoutPlan;
+import com.fiteasy.repository.UserRepository;
+import com.fiteasy.util.BmiCalculator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of historical workout plans from a JSON array or CSV. Rows are
+ * streamed into chunks; each chunk is validated in parallel, its user ids are
+ * checked with one IN query, and its valid rows are saved in one transaction.
+ * A bad row or a failed chunk is reported and the import carries on.
+ */
+@Service
+public class WorkoutPlanImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkoutPlanImportService.class);
+
+    // CSV header (lowercase, without '_' and spaces) -> WorkoutPlan property
+    private static final Map<String, String> CSV_COLUMNS = Map.ofEntries(
+            Map.entry("userid", "userId"),
+            Map.entry("datecreated", "dateCreated"),
+            Map.entry("age", "age"),
+            Map.entry("gender", "gender"),
+            Map.entry("height", "height"),
+            Map.entry("weight", "weight"),
+            Map.entry("trainer", "trainer"),
+            Map.entry("gymname", "gymName"),
+            Map.entry("spenttimeingym", "spentTimeInGym"),
+            Map.entry("workout", "workOut"),
+            Map.entry("repssets", "repsSets")
+    );
+
+    private static final BigDecimal MAX_MEASUREMENT = new BigDecimal("999.99");
+    private static final int MAX_WORKOUT_LENGTH = 500;
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    // A quoted value may span at most this many extra lines before its quote is treated as unterminated
+    private static final int MAX_CONTINUATION_LINES = 50;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private WorkoutPlanService workoutPlanService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.import.chunk-size:500}")
+    private int chunkSize = 500;
+
+    public record RowError(long row, String message) {
+    }
+
+    public record ImportReport(long rows, long imported, long failed, List<RowError> errors) {
+    }
+
+    /**
+     * Imports a JSON array of workout plan objects (the same fields as POST /api/workout-plans).
+     *
+     * @throws IllegalArgumentException before anything is saved when the body is not a JSON array
+     */
+    public ImportReport importJson(InputStream in) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of workout plans");
+            }
+            Import batch = new Import();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                if (token == JsonToken.START_OBJECT) {
+                    batch.add(objectMapper.readTree(parser), null);
+                } else {
+                    parser.skipChildren();
+                    batch.add(null, "Each workout plan must be an object");
+                }
+            }
+            return batch.finish();
+        }
+    }
+
+    /**
+     * Imports CSV with a header row naming the columns (userId, height, weight, trainer, gymName, workOut, ...;
+     * snake_case works too). Values may be double-quoted to contain commas, doubled quotes or line breaks.
+     * A quote still open at the end of the input, or after {@value #MAX_CONTINUATION_LINES} more lines,
+     * is reported as an error on its row, and the lines it swallowed are read again as rows of their own.
+     *
+     * @throws IllegalArgumentException when the header has no userId column or an unterminated quote
+     */
+    public ImportReport importCsv(Reader in) throws IOException {
+        BufferedReader reader = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in);
+        String line = reader.readLine();
+        while (line != null && line.isBlank()) {
+            line = reader.readLine();
+        }
+        List<String> header = line == null ? List.of() : splitCsv(line);
+        if (header == null) {
+            throw new IllegalArgumentException("CSV header has an unterminated quoted value");
+        }
+        String[] properties = new String[header.size()];
+        for (int i = 0; i < header.size(); i++) {
+            properties[i] = CSV_COLUMNS.get(header.get(i).toLowerCase(Locale.ROOT).replace("_", "").replace(" ", ""));
+        }
+        if (!Arrays.asList(properties).contains("userId")) {
+            throw new IllegalArgumentException("CSV header must include a userId column");
+        }
+
+        Import batch = new Import();
+        Deque<String> readAgain = new ArrayDeque<>();
+        while ((line = nextLine(reader, readAgain)) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            StringBuilder record = new StringBuilder(line);
+            List<String> continuation = new ArrayList<>();
+            List<String> values = splitCsv(record);
+            while (values == null && continuation.size() < MAX_CONTINUATION_LINES
+                    && (line = nextLine(reader, readAgain)) != null) {
+                continuation.add(line);
+                record.append('\n').append(line);
+                values = splitCsv(record);
+            }
+            if (values == null) {
+                for (int i = continuation.size() - 1; i >= 0; i--) {
+                    readAgain.addFirst(continuation.get(i));
+                }
+                batch.add(null, "Unterminated quoted value");
+                continue;
+            }
+            ObjectNode node = objectMapper.createObjectNode();
+            for (int i = 0; i < properties.length && i < values.size(); i++) {
+                if (properties[i] != null && !values.get(i).isEmpty()) {
+                    node.put(properties[i], values.get(i));
+                }
+            }
+            batch.add(node, null);
+        }
+        return batch.finish();
+    }
+
+    // One import run: buffers a chunk of rows, then validates and saves it
+    private class Import {
+
+        private final List<Row> chunk = new ArrayList<>(chunkSize);
+        private final List<RowError> errors = new ArrayList<>();
+        private final Set<Long> knownUsers = new HashSet<>();
+        private long rows;
+        private long imported;
+
+        void add(JsonNode node, String error) {
+            Row row = new Row(++rows, node);
+            row.error = error;
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        ImportReport finish() {
+            flush();
+            errors.sort(Comparator.comparingLong(RowError::row));
+            return new ImportReport(rows, imported, errors.size(), errors);
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            // Binding and validation are CPU-only, so rows are checked in parallel
+            chunk.parallelStream().filter(row -> row.error == null).forEach(WorkoutPlanImportService.this::validate);
+
+            Set<Long> unchecked = chunk.stream()
+                    .filter(row -> row.error == null && !knownUsers.contains(row.plan.getUserId()))
+                    .map(row -> row.plan.getUserId())
+                    .collect(Collectors.toSet());
+            if (!unchecked.isEmpty()) {
+                knownUsers.addAll(userRepository.findExistingIds(unchecked));
+            }
+
+            List<Row> valid = new ArrayList<>(chunk.size());
+            for (Row row : chunk) {
+                if (row.error == null && !knownUsers.contains(row.plan.getUserId())) {
+                    row.error = "User not found with id: " + row.plan.getUserId();
+                }
+                if (row.error != null) {
+                    errors.add(new RowError(row.index, row.error));
+                } else {
+                    valid.add(row);
+                }
+            }
+
+            if (!valid.isEmpty()) {
+                try {
+                    imported += workoutPlanService.createWorkoutPlans(valid.stream().map(row -> row.plan).toList()).size();
+                } catch (RuntimeException e) {
+                    log.warn("Workout plan import chunk of {} rows (from row {}) failed", valid.size(), valid.get(0).index, e);
+                    for (Row row : valid) {
+                        errors.add(new RowError(row.index, "Could not save row: " + e.getMessage()));
+                    }
+                }
+            }
+            chunk.clear();
+        }
+    }
+
+    private static final class Row {
+        final long index;
+        final JsonNode node;
+        WorkoutPlan plan;
+        String error;
+
+        Row(long index, JsonNode node) {
+            this.index = index;
+            this.node = node;
+        }
+    }
+
+    // Sets row.plan (new, with BMI computed) or row.error
+    private void validate(Row row) {
+        try {
+            WorkoutPlan plan = objectMapper.treeToValue(row.node, WorkoutPlan.class);
+            plan.setId(null);
+            plan.setBmiData(null);
+            if (plan.getUserId() == null) {
+                throw new IllegalArgumentException("User id is required");
+            }
+            workoutPlanService.validateWorkoutPlanFields(plan);
+            checkMeasurement("Height", plan.getHeight());
+            checkMeasurement("Weight", plan.getWeight());
+            checkLength("Workout description", plan.getWorkOut(), MAX_WORKOUT_LENGTH);
+            checkLength("Trainer", plan.getTrainer(), MAX_TEXT_LENGTH);
+            checkLength("Gym name", plan.getGymName(), MAX_TEXT_LENGTH);
+            if (plan.getHeight() != null && plan.getWeight() != null) {
+                plan.setBmiData(BmiCalculator.format(BmiCalculator.bmiCents(plan.getHeight(), plan.getWeight())));
+            }
+            row.plan = plan;
+        } catch (JsonProcessingException e) {
+            row.error = "Invalid value: " + e.getOriginalMessage();
+        } catch (RuntimeException e) {
+            row.error = e.getMessage();
+        }
+    }
+
+    // height and weight are DECIMAL(5,2)
+    private static void checkMeasurement(String name, BigDecimal value) {
+        if (value != null && value.setScale(2, RoundingMode.HALF_UP).compareTo(MAX_MEASUREMENT) > 0) {
+            throw new IllegalArgumentException(name + " must be at most " + MAX_MEASUREMENT);
+        }
+    }
+
+    private static void checkLength(String name, String value, int max) {
+        if (value != null && value.length() > max) {
+            throw new IllegalArgumentException(name + " must be at most " + max + " characters");
+        }
+    }
+
+    private static String nextLine(BufferedReader reader, Deque<String> readAgain) throws IOException {
+        return readAgain.isEmpty() ? reader.readLine() : readAgain.removeFirst();
+    }
+
+    // Returns null while a quoted value is still open, so the caller can append the next line
+    static List<String> splitCsv(CharSequence line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString().trim());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        values.add(value.toString().trim());
+        return values;
+    }
+}
@@ -1,16 +1,33 @@
 package com.fiteasy.service;
 
+import com.fiteasy.config.CacheConfig;
 import com.fiteasy.model.WorkoutPlan;
 import com.fiteasy.repository.WorkoutPlanRepository;
+import com.fiteasy.repository.WorkoutPlanSummary;
 import com.fiteasy.repository.UserRepository;
+import com.fiteasy.search.TrigramIndex;
+import com.fiteasy.search.WorkoutPlanNameIndex;
+import com.fiteasy.util.AfterCommit;
+import com.fiteasy.util.CursorPage;
+import com.fiteasy.util.SearchPage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -22,11 +39,44 @@ public class WorkoutPlanService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCounterService userCounterService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private WorkoutPlanNameIndex nameIndex;
+
+    @Value("${app.search.min-similarity:0.5}")
+    private double minSimilarity = 0.5;
+
     // PAGE 6: Create workout plan with BMI calculation
     public WorkoutPlan createWorkoutPlan(WorkoutPlan workoutPlan) {
         validateWorkoutPlan(workoutPlan);
         calculateAndSetBMI(workoutPlan);
-        return workoutPlanRepository.save(workoutPlan);
+        WorkoutPlan savedPlan = workoutPlanRepository.save(workoutPlan);
+        userCounterService.workoutPlanAdded(savedPlan.getUserId(), savedPlan.getBmiData() != null);
+        evictWorkoutPlansCache(savedPlan.getUserId());
+        indexAfterCommit(savedPlan);
+        return savedPlan;
+    }
+
+    // Bulk import: plans arrive validated (user ids included) with BMI set; counters move once per user
+    public List<WorkoutPlan> createWorkoutPlans(List<WorkoutPlan> workoutPlans) {
+        List<WorkoutPlan> savedPlans = workoutPlanRepository.saveAll(workoutPlans);
+        Map<Long, long[]> addedByUser = new HashMap<>();
+        for (WorkoutPlan plan : savedPlans) {
+            long[] added = addedByUser.computeIfAbsent(plan.getUserId(), id -> new long[2]);
+            added[0]++;
+            added[1] += plan.getBmiData() != null ? 1 : 0;
+            indexAfterCommit(plan);
+        }
+        addedByUser.forEach((userId, added) -> {
+            userCounterService.workoutPlansAdded(userId, added[0], added[1]);
+            evictWorkoutPlansCache(userId);
+        });
+        return savedPlans;
     }
 
     // Comprehensive workout plan validation
@@ -42,8 +92,8 @@ public class WorkoutPlanService {
         }
     }
 
-    // Validate workout plan fields
-    private void validateWorkoutPlanFields(WorkoutPlan workoutPlan) {
+    // Validate workout plan fields - shared with the bulk import
+    void validateWorkoutPlanFields(WorkoutPlan workoutPlan) {
         validateAge(workoutPlan.getAge());
         validateHeight(workoutPlan.getHeight());
         validateWeight(workoutPlan.getWeight());
@@ -86,12 +136,14 @@ public class WorkoutPlanService {
         }
     }
 
-    // PAGE 6: Get workout plans for user
-    public List<WorkoutPlan> getWorkoutPlansByUserId(Long userId) {
-        return workoutPlanRepository.findByUserId(userId);
+    // PAGE 6: Get workout plans for user - cache fills stay on the primary (read-write)
+    @Cacheable(cacheNames = CacheConfig.WORKOUT_PLANS_BY_USER, key = "#userId")
+    public List<WorkoutPlanSummary> getWorkoutPlansByUserId(Long userId) {
+        return workoutPlanRepository.findSummariesByUserId(userId);
     }
 
     // PAGE 6: Get workout plan by ID
+    @Transactional(readOnly = true)
     public Optional<WorkoutPlan> getWorkoutPlanById(Long id) {
         return workoutPlanRepository.findById(id);
     }
@@ -100,6 +152,7 @@ public class WorkoutPlanService {
     public WorkoutPlan updateWorkoutPlan(Long id, WorkoutPlan planDetails) {
         WorkoutPlan plan = workoutPlanRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Workout plan not found with id: " + id));
+        boolean hadBmi = plan.getBmiData() != null;
 
         // Update fields
         if (planDetails.getBmiData() != null) {
@@ -152,7 +205,11 @@ public class WorkoutPlanService {
             plan.setRepsSets(planDetails.getRepsSets());
         }
 
-        return workoutPlanRepository.save(plan);
+        WorkoutPlan savedPlan = workoutPlanRepository.save(plan);
+        userCounterService.bmiResultChanged(savedPlan.getUserId(), hadBmi, savedPlan.getBmiData() != null);
+        evictWorkoutPlansCache(savedPlan.getUserId());
+        indexAfterCommit(savedPlan);
+        return savedPlan;
     }
 
     // PAGE 6: Delete workout plan
@@ -160,13 +217,18 @@ public class WorkoutPlanService {
         WorkoutPlan plan = workoutPlanRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Workout plan not found with id: " + id));
         workoutPlanRepository.delete(plan);
+        userCounterService.workoutPlanRemoved(plan.getUserId(), plan.getBmiData() != null);
+        evictWorkoutPlansCache(plan.getUserId());
+        AfterCommit.run(() -> nameIndex.remove(id, plan.getUserId()));
     }
 
     // PAGE 4: Dashboard counts
+    @Transactional(readOnly = true)
     public long getWorkoutPlanCountByUserId(Long userId) {
         return workoutPlanRepository.countByUserId(userId);
     }
 
+    @Transactional(readOnly = true)
     public long getBMIResultsCountByUserId(Long userId) {
         return workoutPlanRepository.countByUserIdAndBmiDataIsNotNull(userId);
     }
@@ -207,12 +269,14 @@ public class WorkoutPlanService {
     }
 
     // Get latest workout plan for user
+    @Transactional(readOnly = true)
     public Optional<WorkoutPlan> getLatestWorkoutPlanByUserId(Long userId) {
         List<WorkoutPlan> plans = workoutPlanRepository.findByUserIdOrderByCreatedAtDesc(userId);
         return plans.isEmpty() ? Optional.empty() : Optional.of(plans.get(0));
     }
 
     // Get workout plans with BMI data
+    @Transactional(readOnly = true)
     public List<WorkoutPlan> getWorkoutPlansWithBMI(Long userId) {
         return workoutPlanRepository.findByUserIdAndBmiDataIsNotNull(userId);
     }
@@ -220,18 +284,99 @@ public class WorkoutPlanService {
     // Delete all workout plans for user (cascade delete)
     public void deleteWorkoutPlansByUserId(Long userId) {
         workoutPlanRepository.deleteByUserId(userId);
+        userCounterService.workoutPlansCleared(userId);
+        evictWorkoutPlansCache(userId);
+        AfterCommit.run(() -> nameIndex.removeByUserId(userId));
     }
 
     // Admin functions
+    @Transactional(readOnly = true)
     public List<WorkoutPlan> getAllWorkoutPlans() {
         return workoutPlanRepository.findAll();
     }
 
-    public List<WorkoutPlan> getWorkoutPlansByTrainer(String trainerName) {
-        return workoutPlanRepository.findByTrainerContainingIgnoreCase(trainerName);
+    // Keyset paginated version of getAllWorkoutPlans - bounded memory per request
+    @Transactional(readOnly = true)
+    public CursorPage<WorkoutPlan> getWorkoutPlansPage(String cursor, Integer size) {
+        int pageSize = CursorPage.pageSize(size);
+        List<WorkoutPlan> rows = workoutPlanRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, WorkoutPlan::getId);
     }
 
-    public List<WorkoutPlan> getWorkoutPlansByGym(String gymName) {
-        return workoutPlanRepository.findByGymNameContainingIgnoreCase(gymName);
+    // Substring match on the trainer name index, optionally typo-tolerant, one page at a time
+    @Transactional(readOnly = true)
+    public SearchPage<WorkoutPlan> getWorkoutPlansByTrainer(String trainerName, boolean fuzzy, int page, Integer size) {
+        if (!nameIndex.isReady()) {
+            return new SearchPage<>(workoutPlanRepository.findByTrainerContainingIgnoreCase(trainerName), null);
+        }
+        return searchNames(nameIndex.trainers(), trainerName, fuzzy, page, size,
+                workoutPlanRepository::findAllById, WorkoutPlan::getId);
+    }
+
+    // Same search returning list projections (workOut cut to a preview)
+    @Transactional(readOnly = true)
+    public SearchPage<WorkoutPlanSummary> getWorkoutPlanSummariesByTrainer(String trainerName, boolean fuzzy, int page, Integer size) {
+        if (!nameIndex.isReady()) {
+            return new SearchPage<>(workoutPlanRepository.findByTrainerContainingIgnoreCase(trainerName).stream()
+                    .map(WorkoutPlanSummary::preview).toList(), null);
+        }
+        return searchNames(nameIndex.trainers(), trainerName, fuzzy, page, size,
+                workoutPlanRepository::findPreviewsByIdIn, WorkoutPlanSummary::id);
+    }
+
+    @Transactional(readOnly = true)
+    public SearchPage<WorkoutPlan> getWorkoutPlansByGym(String gymName, boolean fuzzy, int page, Integer size) {
+        if (!nameIndex.isReady()) {
+            return new SearchPage<>(workoutPlanRepository.findByGymNameContainingIgnoreCase(gymName), null);
+        }
+        return searchNames(nameIndex.gyms(), gymName, fuzzy, page, size,
+                workoutPlanRepository::findAllById, WorkoutPlan::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public SearchPage<WorkoutPlanSummary> getWorkoutPlanSummariesByGym(String gymName, boolean fuzzy, int page, Integer size) {
+        if (!nameIndex.isReady()) {
+            return new SearchPage<>(workoutPlanRepository.findByGymNameContainingIgnoreCase(gymName).stream()
+                    .map(WorkoutPlanSummary::preview).toList(), null);
+        }
+        return searchNames(nameIndex.gyms(), gymName, fuzzy, page, size,
+                workoutPlanRepository::findPreviewsByIdIn, WorkoutPlanSummary::id);
+    }
+
+    // One id past the page tells whether another page exists; rows are loaded in one query and put back in rank order
+    private <T> SearchPage<T> searchNames(TrigramIndex index, String query, boolean fuzzy, int page, Integer size,
+                                          Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        int pageSize = CursorPage.pageSize(size);
+        int pageNumber = Math.max(page, 0);
+        List<Long> rankedIds = index.search(query, fuzzy, minSimilarity, pageNumber * pageSize, pageSize + 1);
+        Integer nextPage = null;
+        if (rankedIds.size() > pageSize) {
+            rankedIds = rankedIds.subList(0, pageSize);
+            nextPage = pageNumber + 1;
+        }
+        if (rankedIds.isEmpty()) {
+            return new SearchPage<>(List.of(), null);
+        }
+        Map<Long, T> plansById = loader.apply(rankedIds).stream()
+                .collect(Collectors.toMap(idOf, Function.identity()));
+        return new SearchPage<>(rankedIds.stream().map(plansById::get).filter(Objects::nonNull).toList(), nextPage);
+    }
+
+    // Index changes are applied after commit so a rollback cannot leave the index ahead of the table
+    private void indexAfterCommit(WorkoutPlan plan) {
+        Long id = plan.getId();
+        Long userId = plan.getUserId();
+        String trainer = plan.getTrainer();
+        String gymName = plan.getGymName();
+        AfterCommit.run(() -> nameIndex.add(id, userId, trainer, gymName));
+    }
+
+    // Cache invalidation for every write path, including the bulk JPQL delete
+    private void evictWorkoutPlansCache(Long userId) {
+        Cache cache = cacheManager.getCache(CacheConfig.WORKOUT_PLANS_BY_USER);
+        if (cache != null) {
+            cache.evict(userId);
+        }
     }
-}
\ No newline at end of file
+}
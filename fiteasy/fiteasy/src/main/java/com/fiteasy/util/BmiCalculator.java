@@ -0,0 +1,160 @@
+package com.fiteasy.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Allocation-light BMI arithmetic for batch requests. Works on scaled longs
+ * (height in 1/10000 m, BMI in hundredths) and gives exactly the same result
+ * as WorkoutPlanService.calculateBMI / getBMICategory: height in metres is
+ * rounded HALF_UP to 4 decimals, BMI HALF_UP to 2 decimals. Inputs outside
+ * the range where the long arithmetic is exact go through BigDecimal instead;
+ * a BMI too large for a long is rejected.
+ */
+public final class BmiCalculator {
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L, 10_000_000_000_000_000L,
+            100_000_000_000_000_000L, 1_000_000_000_000_000_000L};
+
+    // Unscaled value and scale of a parsed decimal, packed so parsing allocates nothing
+    private static final int SCALE_BITS = 5;
+    private static final long NOT_PARSED = -1;
+
+    private BmiCalculator() {
+    }
+
+    /**
+     * BMI in hundredths for height in cm and weight in kg, given as decimal text.
+     *
+     * @throws IllegalArgumentException when either value is missing, malformed or not positive
+     */
+    public static long bmiCents(CharSequence height, CharSequence weight) {
+        long packedHeight = parse(height);
+        long packedWeight = parse(weight);
+        if (packedHeight == NOT_PARSED || packedWeight == NOT_PARSED) {
+            return bmiCents(toBigDecimal(height), toBigDecimal(weight));
+        }
+        if (packedHeight >>> SCALE_BITS == 0 || packedWeight >>> SCALE_BITS == 0) {
+            throw new IllegalArgumentException("Height and weight must be positive numbers");
+        }
+        long cents = bmiCents(packedHeight >>> SCALE_BITS, (int) (packedHeight & 31),
+                packedWeight >>> SCALE_BITS, (int) (packedWeight & 31));
+        return cents != NOT_PARSED ? cents : bmiCents(toBigDecimal(height), toBigDecimal(weight));
+    }
+
+    public static long bmiCents(BigDecimal height, BigDecimal weight) {
+        if (height == null || weight == null || height.signum() <= 0 || weight.signum() <= 0) {
+            throw new IllegalArgumentException("Height and weight must be positive numbers");
+        }
+        BigDecimal heightInMeters = height.divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
+        if (heightInMeters.signum() == 0) {
+            throw new IllegalArgumentException("Height is too small");
+        }
+        BigDecimal bmi = weight.divide(heightInMeters.multiply(heightInMeters), 2, RoundingMode.HALF_UP);
+        if (bmi.unscaledValue().bitLength() > 62) {
+            throw new IllegalArgumentException("Height and weight are out of range");
+        }
+        return bmi.unscaledValue().longValue();
+    }
+
+    // Same text as BigDecimal.toString() of the 2-decimal BMI, e.g. 2286 -> "22.86"
+    public static String format(long cents) {
+        long fraction = cents % 100;
+        return (cents / 100) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    public static String category(long cents) {
+        if (cents < 1850) {
+            return "Underweight";
+        } else if (cents < 2500) {
+            return "Normal weight";
+        } else if (cents < 3000) {
+            return "Overweight";
+        } else {
+            return "Obese";
+        }
+    }
+
+    // bmi = weight / (round(height / 100, 4))^2, so in hundredths: w * 10^(10 - sW) / H^2 with H in 1/10000 m
+    private static long bmiCents(long heightUnscaled, int heightScale, long weightUnscaled, int weightScale) {
+        long heightUnits;
+        if (heightScale <= 2) {
+            heightUnits = multiplyOrOverflow(heightUnscaled, POWERS_OF_TEN[2 - heightScale]);
+        } else {
+            heightUnits = divideHalfUp(heightUnscaled, POWERS_OF_TEN[heightScale - 2]);
+        }
+        if (heightUnits <= 0 || weightScale > 10) {
+            return NOT_PARSED;
+        }
+        long divisor = multiplyOrOverflow(heightUnits, heightUnits);
+        long dividend = multiplyOrOverflow(weightUnscaled, POWERS_OF_TEN[10 - weightScale]);
+        if (divisor < 0 || dividend < 0) {
+            return NOT_PARSED;
+        }
+        return divideHalfUp(dividend, divisor);
+    }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        return remainder >= divisor - remainder ? quotient + 1 : quotient;
+    }
+
+    private static long multiplyOrOverflow(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long product = a * b;
+        return high == 0 && product >= 0 ? product : -1;
+    }
+
+    // Plain non-negative decimals with up to 18 digits; anything else (signs, exponents) returns NOT_PARSED
+    private static long parse(CharSequence text) {
+        if (text == null) {
+            return NOT_PARSED;
+        }
+        int length = text.length();
+        int start = 0;
+        while (start < length && text.charAt(start) == ' ') {
+            start++;
+        }
+        while (length > start && text.charAt(length - 1) == ' ') {
+            length--;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (int i = start; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > 18) {
+                    return NOT_PARSED;
+                }
+                unscaled = unscaled * 10 + (c - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return NOT_PARSED;
+            }
+        }
+        if (digits == 0 || scale > 18 || (unscaled >>> (63 - SCALE_BITS)) != 0) {
+            return NOT_PARSED;
+        }
+        return (unscaled << SCALE_BITS) | Math.max(scale, 0);
+    }
+
+    private static BigDecimal toBigDecimal(CharSequence text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Both height and weight are required");
+        }
+        try {
+            return new BigDecimal(text.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + text);
+        }
+    }
+}
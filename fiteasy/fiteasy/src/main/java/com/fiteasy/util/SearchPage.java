@@ -0,0 +1,11 @@
+package com.fiteasy.util;
+
+import java.util.List;
+
+/**
+ * One page of a ranked search. The order comes from the ranking, not the id,
+ * so unlike {@link CursorPage} the next page is addressed by its number;
+ * nextPage is null on the last page.
+ */
+public record SearchPage<T>(List<T> items, Integer nextPage) {
+}
@@ -0,0 +1,16 @@
+-- Composite indexes declared on WorkoutPlan and HelpingTool. With ddl-auto=update
+-- Hibernate creates them at startup, but that blocks on a large table; run this
+-- first on MySQL instead. InnoDB builds them online, so reads and writes continue.
+--
+-- Every per-user query filters on user_id first; the trailing columns serve the
+-- ORDER BY created_at listings, the bmi_data IS NOT NULL filters and the per-type
+-- helping tool lookups without a filesort.
+
+ALTER TABLE workout_plans
+    ADD INDEX idx_workout_plans_user_created (user_id, created_at),
+    ADD INDEX idx_workout_plans_user_bmi (user_id, bmi_data),
+    ALGORITHM = INPLACE, LOCK = NONE;
+
+ALTER TABLE helping_tools
+    ADD INDEX idx_helping_tools_user_type_created (user_id, type, created_at),
+    ALGORITHM = INPLACE, LOCK = NONE;
@@ -0,0 +1,32 @@
+-- Moves users, workout_plans and helping_tools from AUTO_INCREMENT to the pooled
+-- table generator (see com.fiteasy.model.IdGenerators). Run once on MySQL before
+-- deploying with spring.jpa.hibernate.ddl-auto=validate/none; with ddl-auto=update
+-- the table is created by Hibernate and IdGeneratorSeeder does the same seeding at
+-- startup. Re-running is harmless: values only move up.
+--
+-- Each row stores the last value handed out and the next block of 50 ids ends
+-- one above it, so it is seeded with MAX(id) + 49 and the first new id is MAX(id) + 1.
+
+CREATE TABLE IF NOT EXISTS id_generators (
+    sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val      BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'users', COALESCE(MAX(id), 0) + 49 FROM users
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'workout_plans', COALESCE(MAX(id), 0) + 49 FROM workout_plans
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'helping_tools', COALESCE(MAX(id), 0) + 49 FROM helping_tools
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+-- Old and new versions must not insert side by side: AUTO_INCREMENT on the old
+-- instances would hand out the same ids as the pool. The AUTO_INCREMENT attribute
+-- itself is harmless once Hibernate supplies every id, and can be dropped later:
+-- ALTER TABLE workout_plans MODIFY id BIGINT NOT NULL;
+-- ALTER TABLE helping_tools MODIFY id BIGINT NOT NULL;
+-- ALTER TABLE users MODIFY id BIGINT NOT NULL;
@@ -0,0 +1,87 @@
+package com.fiteasy.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testRequestWithinLimit_PassesThroughAndReleasesPermit() throws Exception {
+        // Arrange
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 10, meterRegistry);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/users/1/counts"), response, new MockFilterChain());
+
+            // Assert
+            assertEquals(200, response.getStatus());
+        }
+        assertEquals(0, meterRegistry.get("app.concurrency.in.flight").gauge().value());
+    }
+
+    @Test
+    void testAsyncRequest_HoldsPermitUntilComplete() throws Exception {
+        // Arrange
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 10, meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/workout-plans/export");
+        request.setAsyncSupported(true);
+
+        // Act - the dispatch starts async processing and returns with the body still to be streamed
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> req.startAsync());
+
+        // Assert
+        assertEquals(1, meterRegistry.get("app.concurrency.in.flight").gauge().value());
+        request.getAsyncContext().complete();
+        assertEquals(0, meterRegistry.get("app.concurrency.in.flight").gauge().value());
+    }
+
+    @Test
+    void testRequestOverLimit_Returns503WithRetryAfter() throws Exception {
+        // Arrange
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 50, meterRegistry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/users/1"), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            entered.countDown();
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users/2"), response, new MockFilterChain());
+
+        // Assert
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("Server is busy"));
+        assertEquals(1, meterRegistry.get("app.concurrency.rejected").counter().count());
+
+        release.countDown();
+        holder.join();
+    }
+}
@@ -0,0 +1,121 @@
+package com.fiteasy.config;
+
+import com.fiteasy.model.User;
+import com.fiteasy.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A second in-memory H2 database stands in for the replica. It gets the primary's
+ * schema but none of its rows, so every read shows which pool served it.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "app.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ReplicaDataSourceConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicaDataSourceConfigTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primary")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replica")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("DROP ALL OBJECTS");
+        List<String> schema = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT NODATA", String.class);
+        schema.forEach(replica::execute);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testReadOnlyTransaction_ReadsTheReplica() {
+        // Arrange
+        userRepository.save(new User("primary-user", "primary@example.com", "secret"));
+        replica.update("INSERT INTO users (id, username, email, password) VALUES (999, 'replica-user', 'replica@example.com', 'secret')");
+
+        // Act
+        List<String> readOnly = readOnly().execute(status -> usernames());
+        List<String> readWrite = new TransactionTemplate(transactionManager).execute(status -> usernames());
+
+        // Assert
+        assertEquals(List.of("replica-user"), readOnly);
+        assertEquals(List.of("primary-user"), readWrite);
+    }
+
+    @Test
+    void testReadOnlyTransaction_NoFlushAndNoSnapshots() {
+        // Act
+        FlushMode flushMode = readOnly().execute(status -> entityManager.unwrap(Session.class).getHibernateFlushMode());
+        Boolean defaultReadOnly = readOnly().execute(status -> entityManager.unwrap(Session.class).isDefaultReadOnly());
+
+        // Assert
+        assertEquals(FlushMode.MANUAL, flushMode);
+        assertTrue(defaultReadOnly);
+    }
+
+    @Test
+    void testWritesWithoutTransaction_GoToThePrimary() {
+        // Act
+        userRepository.save(new User("saved-user", "saved@example.com", "secret"));
+
+        // Assert
+        assertEquals(1, new JdbcTemplate(primaryDataSource).queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction;
+    }
+
+    private List<String> usernames() {
+        return userRepository.findAll().stream().map(User::getUsername).toList();
+    }
+}
@@ -0,0 +1,86 @@
+package com.fiteasy.monitoring;
+
+import com.fiteasy.config.DataSourceProxyConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards against new repository queries that scan a whole table: the report
+ * runs with the allowed-full-scans list from application.properties.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import({DataSourceProxyConfig.class, IndexAdvisor.class})
+class IndexAdvisorTest {
+
+    @Autowired
+    private IndexAdvisor indexAdvisor;
+
+    @Test
+    void testReport_NoUnexpectedFullScans() {
+        // Act
+        IndexAdvisor.Report report = indexAdvisor.report();
+
+        // Assert
+        List<String> unexpected = report.queries().stream()
+                .filter(plan -> plan.status() == IndexAdvisor.Status.FULL_SCAN || plan.status() == IndexAdvisor.Status.ERROR)
+                .map(plan -> plan.query() + " " + plan.fullScans() + ": " + plan.sql())
+                .toList();
+        assertEquals(List.of(), unexpected);
+        assertEquals(0, report.fullScans());
+        assertTrue(report.checked() > 40, "only " + report.checked() + " queries checked");
+    }
+
+    @Test
+    void testReport_PerUserQueriesUseTheCompositeIndexes() {
+        // Act
+        Map<String, IndexAdvisor.QueryPlan> plans = byQuery(indexAdvisor.report());
+
+        // Assert
+        assertUses(plans, "WorkoutPlanRepository.findByUserIdOrderByCreatedAtDesc", "IDX_WORKOUT_PLANS_USER_CREATED");
+        assertUses(plans, "WorkoutPlanRepository.countByUserIdAndBmiDataIsNotNull", "IDX_WORKOUT_PLANS_USER_BMI");
+        assertUses(plans, "HelpingToolRepository.findByUserIdOrderByTypeAndCreatedAt", "IDX_HELPING_TOOLS_USER_TYPE_CREATED");
+        assertUses(plans, "HelpingToolRepository.findByUserIdAndType", "IDX_HELPING_TOOLS_USER_TYPE_CREATED");
+        assertEquals(IndexAdvisor.Status.SKIPPED, plans.get("HelpingToolRepository.deleteByUserIdAndType").status());
+    }
+
+    @Test
+    void testReport_FlagsFullScansOutsideTheAllowList() {
+        // Arrange
+        Set<?> allowed = Set.copyOf((Set<?>) ReflectionTestUtils.getField(indexAdvisor, "allowedFullScans"));
+        ReflectionTestUtils.setField(indexAdvisor, "allowedFullScans", Set.of());
+
+        try {
+            // Act
+            IndexAdvisor.Report report = indexAdvisor.report();
+
+            // Assert
+            IndexAdvisor.QueryPlan plan = byQuery(report).get("WorkoutPlanRepository.findByTrainerContainingIgnoreCase");
+            assertEquals(IndexAdvisor.Status.FULL_SCAN, plan.status());
+            assertEquals(List.of("workout_plans"), plan.fullScans());
+            assertEquals(allowed.size(), report.fullScans());
+        } finally {
+            ReflectionTestUtils.setField(indexAdvisor, "allowedFullScans", allowed);
+        }
+    }
+
+    private static Map<String, IndexAdvisor.QueryPlan> byQuery(IndexAdvisor.Report report) {
+        return report.queries().stream().collect(Collectors.toMap(IndexAdvisor.QueryPlan::query, Function.identity()));
+    }
+
+    private static void assertUses(Map<String, IndexAdvisor.QueryPlan> plans, String query, String index) {
+        IndexAdvisor.QueryPlan plan = plans.get(query);
+        assertEquals(IndexAdvisor.Status.INDEXED, plan.status(), query);
+        assertTrue(plan.plan().contains(index), query + " does not use " + index + ":\n" + plan.plan());
+    }
+}
@@ -0,0 +1,93 @@
+package com.fiteasy.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Scrapes /actuator/prometheus after a few API calls and checks that endpoint and
+ * repository timers are published as bucketed histograms, from which Prometheus
+ * derives the p50/p95/p99/p999 latencies.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:latency-metrics;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "app.management.password=scrape-secret"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class LatencyMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testEndpointTimers_PublishedAsHistograms() throws Exception {
+        // Arrange
+        mockMvc.perform(get("/api/workout-plans/count/user/42")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/999999")).andExpect(status().is4xxClientError());
+
+        // Act
+        List<String> lines = scrape();
+
+        // Assert
+        String ok = "method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/api/workout-plans/count/user/{userId}\"";
+        assertHasLine(lines, "http_server_requests_seconds_bucket{", ok, "le=\"0.001\"");
+        assertHasLine(lines, "http_server_requests_seconds_bucket{", ok, "le=\"10.0\"");
+        assertHasLine(lines, "http_server_requests_seconds_bucket{", ok, "le=\"+Inf\"");
+        assertHasLine(lines, "http_server_requests_seconds_count{", "outcome=\"CLIENT_ERROR\"", "uri=\"/api/users/{id}\"");
+    }
+
+    @Test
+    void testRepositoryTimers_PublishedAsHistograms() throws Exception {
+        // Arrange
+        mockMvc.perform(post("/api/users/register").contentType("application/json")
+                        .content("{\"username\":\"latency\",\"email\":\"latency@example.com\",\"password\":\"Password123\"}"))
+                .andExpect(status().isOk());
+
+        // Act
+        List<String> lines = scrape();
+
+        // Assert
+        String save = "method=\"saveAndFlush\",repository=\"UserRepository\",state=\"SUCCESS\"";
+        assertHasLine(lines, "spring_data_repository_invocations_seconds_bucket{", save, "le=\"1.0E-4\"");
+        assertHasLine(lines, "spring_data_repository_invocations_seconds_bucket{", save, "le=\"5.0\"");
+        assertHasLine(lines, "spring_data_repository_invocations_seconds_count{", save);
+    }
+
+    @Test
+    void testScrapeEndpoint_RequiresMonitoringCredentials() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("monitor", "wrong"))).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    private List<String> scrape() throws Exception {
+        String body = mockMvc.perform(get("/actuator/prometheus").with(httpBasic("monitor", "scrape-secret")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return body.lines().filter(line -> !line.startsWith("#")).toList();
+    }
+
+    private static void assertHasLine(List<String> lines, String metric, String... labels) {
+        boolean found = lines.stream().anyMatch(line -> line.startsWith(metric)
+                && List.of(labels).stream().allMatch(line::contains));
+        assertTrue(found, "no " + metric + " sample with " + String.join(", ", labels));
+    }
+}
@@ -0,0 +1,238 @@
+package com.fiteasy.monitoring;
+
+import com.fiteasy.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the hot API paths against H2 with budgets enforced, so a change that
+ * adds statements to an annotated endpoint fails here.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sql-budget;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "app.sql.budget.mode=fail"
+})
+@AutoConfigureMockMvc
+@Import(SqlBudgetInterceptorTest.BudgetProbe.class)
+class SqlBudgetInterceptorTest {
+
+    @RestController
+    static class BudgetProbe {
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @SqlBudget(1)
+        @GetMapping("/api/test/sql-budget")
+        public Map<String, Long> twoQueries() {
+            return Map.of("users", userRepository.count(), "again", userRepository.count());
+        }
+
+        @SqlBudget(1)
+        @GetMapping("/api/test/sql-budget/stream")
+        public ResponseEntity<StreamingResponseBody> twoQueriesStreamed() {
+            long users = userRepository.count();
+            long again = userRepository.count();
+            return ResponseEntity.ok(out -> out.write((users + "," + again).getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @SqlBudget(1)
+        @GetMapping("/api/test/sql-budget/stream-counted")
+        public ResponseEntity<StreamingResponseBody> queryBeforeAndWhileStreaming() {
+            long users = userRepository.count();
+            return ResponseEntity.ok(out -> out.write((users + "," + userRepository.count()).getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SqlBudgetInterceptor sqlBudgetInterceptor;
+
+    @Test
+    void testHotPaths_StayWithinBudget() throws Exception {
+        // Arrange
+        MvcResult registered = mockMvc.perform(post("/api/users/register").contentType("application/json")
+                        .content("{\"username\":\"budget\",\"email\":\"budget@example.com\",\"password\":\"Password123\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String userId = registered.getResponse().getContentAsString().replaceAll(".*\"userId\":(\\d+).*", "$1");
+        String plan = "{\"userId\":" + userId + ",\"height\":175,\"weight\":70,\"workOut\":\"run\",\"trainer\":\"Ann\"}";
+
+        // Act & Assert - a request over its budget throws instead of returning
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/workout-plans").contentType("application/json").content(plan))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(post("/api/helping-tools/youtube").contentType("application/json")
+                        .content("{\"userId\":" + userId + ",\"url\":\"https://youtube.com/watch?v=1\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/users/login").contentType("application/json")
+                        .content("{\"username\":\"budget\",\"password\":\"Password123\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/" + userId + "/counts"))
+                .andExpect(header().string(SqlBudgetInterceptor.HEADER, "1"));
+        mockMvc.perform(get("/api/workout-plans/user/" + userId))
+                .andExpect(header().string(SqlBudgetInterceptor.HEADER, "1"));
+        mockMvc.perform(get("/api/workout-plans/user/" + userId))
+                .andExpect(header().string(SqlBudgetInterceptor.HEADER, "0"));
+        mockMvc.perform(get("/api/helping-tools/user/" + userId + "/youtube"))
+                .andExpect(header().string(SqlBudgetInterceptor.HEADER, "1"));
+    }
+
+    @Test
+    void testStatementCount_RecordedPerEndpoint() throws Exception {
+        // Arrange
+        double before = summaryCount("/api/workout-plans/count/user/{userId}");
+
+        // Act
+        mockMvc.perform(get("/api/workout-plans/count/user/42"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlBudgetInterceptor.HEADER, "1"));
+
+        // Assert
+        assertEquals(before + 1, summaryCount("/api/workout-plans/count/user/{userId}"));
+    }
+
+    @Test
+    void testOverBudget_FailsInFailMode() {
+        // Act
+        ServletException exception = assertThrows(ServletException.class,
+                () -> mockMvc.perform(get("/api/test/sql-budget")));
+
+        // Assert
+        assertInstanceOf(SqlBudgetInterceptor.BudgetExceededException.class, exception.getCause());
+        assertEquals("twoQueries executed 2 SQL statements, budget is 1", exception.getCause().getMessage());
+    }
+
+    @Test
+    void testOverBudget_CountedButServedInLogMode() throws Exception {
+        // Arrange
+        double before = meterRegistry.counter("app.sql.budget.exceeded", "method", "GET", "uri", "/api/test/sql-budget").count();
+        ReflectionTestUtils.setField(sqlBudgetInterceptor, "mode", SqlBudgetInterceptor.Mode.LOG);
+
+        try {
+            // Act
+            mockMvc.perform(get("/api/test/sql-budget"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(SqlBudgetInterceptor.HEADER, "2"));
+        } finally {
+            ReflectionTestUtils.setField(sqlBudgetInterceptor, "mode", SqlBudgetInterceptor.Mode.FAIL);
+        }
+
+        // Assert
+        assertEquals(before + 1,
+                meterRegistry.counter("app.sql.budget.exceeded", "method", "GET", "uri", "/api/test/sql-budget").count());
+    }
+
+    @Test
+    void testStreamedBatch_GetsHeaderAndBudgetCheck() throws Exception {
+        // Act
+        MvcResult started = mockMvc.perform(post("/api/workout-plans/calculate-bmi/batch").contentType("application/json")
+                        .content("[{\"id\":1,\"height\":175,\"weight\":70}]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlBudgetInterceptor.HEADER, "0"))
+                .andExpect(content().json("[{\"index\":0,\"id\":1,\"bmi\":\"22.86\",\"category\":\"Normal weight\"}]"));
+    }
+
+    @Test
+    void testStreamedBatch_RejectsNonArrayBeforeStreaming() throws Exception {
+        // Act
+        MvcResult started = mockMvc.perform(post("/api/workout-plans/calculate-bmi/batch").contentType("application/json")
+                        .content("{\"height\":175}"))
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"message\":\"Expected a JSON array of measurements\"}"));
+    }
+
+    @Test
+    void testStreamedExport_GetsHeader() throws Exception {
+        // Act
+        MvcResult started = mockMvc.perform(get("/api/workout-plans/export").param("userId", "-1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert - the rows are read while streaming, after the header went out
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlBudgetInterceptor.HEADER, "0"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"workout-plans.ndjson\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testStreamedOverBudget_FailsInFailMode() {
+        // Act
+        ServletException exception = assertThrows(ServletException.class,
+                () -> mockMvc.perform(get("/api/test/sql-budget/stream")));
+
+        // Assert
+        assertInstanceOf(SqlBudgetInterceptor.BudgetExceededException.class, exception.getCause());
+        assertEquals("twoQueriesStreamed executed 2 SQL statements, budget is 1", exception.getCause().getMessage());
+    }
+
+    @Test
+    void testStreamedStatements_RecordedWithTheRequest() throws Exception {
+        // Arrange
+        String uri = "/api/test/sql-budget/stream-counted";
+        var summary = meterRegistry.find("app.sql.statements").tags("method", "GET", "uri", uri).summary();
+        double before = summary == null ? 0 : summary.totalAmount();
+
+        // Act - one statement in the handler, one while the body is written
+        MvcResult started = mockMvc.perform(get(uri))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlBudgetInterceptor.HEADER, "1"));
+
+        // Assert
+        assertEquals(before + 2, meterRegistry.find("app.sql.statements").tags("method", "GET", "uri", uri)
+                .summary().totalAmount());
+    }
+
+    private double summaryCount(String uri) {
+        var summary = meterRegistry.find("app.sql.statements").tags("method", "GET", "uri", uri).summary();
+        return summary == null ? 0 : summary.count();
+    }
+}
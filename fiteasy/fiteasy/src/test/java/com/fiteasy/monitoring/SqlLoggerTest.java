@@ -0,0 +1,76 @@
+package com.fiteasy.monitoring;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlLoggerTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SqlLogger.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void testSlowStatement_LoggedWithBindValues() {
+        // Arrange
+        JdbcTemplate jdbcTemplate = proxied(new SqlLogger(Duration.ZERO, 0));
+
+        // Act
+        jdbcTemplate.queryForObject("SELECT ?", Integer.class, 42);
+
+        // Assert
+        assertEquals(1, appender.list.size());
+        ILoggingEvent event = appender.list.get(0);
+        assertEquals(Level.WARN, event.getLevel());
+        assertTrue(event.getFormattedMessage().startsWith("Slow SQL: "), event.getFormattedMessage());
+        assertTrue(event.getFormattedMessage().contains("Query:[\"SELECT ?\"]"), event.getFormattedMessage());
+        assertTrue(event.getFormattedMessage().contains("Params:[(42)]"), event.getFormattedMessage());
+    }
+
+    @Test
+    void testFastStatement_LoggedOnlyWhenSampled() {
+        // Arrange
+        JdbcTemplate never = proxied(new SqlLogger(Duration.ofHours(1), 0));
+        JdbcTemplate always = proxied(new SqlLogger(Duration.ofHours(1), 1));
+
+        // Act
+        never.queryForObject("SELECT 1", Integer.class);
+        always.queryForObject("SELECT 2", Integer.class);
+
+        // Assert
+        assertEquals(1, appender.list.size());
+        assertEquals(Level.INFO, appender.list.get(0).getLevel());
+        assertTrue(appender.list.get(0).getFormattedMessage().startsWith("Sampled SQL: "));
+        assertTrue(appender.list.get(0).getFormattedMessage().contains("SELECT 2"));
+    }
+
+    private static JdbcTemplate proxied(SqlLogger sqlLogger) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql-logger");
+        DataSource dataSource = ProxyDataSourceBuilder.create(h2).name("test").listener(sqlLogger).build();
+        return new JdbcTemplate(dataSource);
+    }
+}
@@ -0,0 +1,82 @@
+package com.fiteasy.repository;
+
+import com.fiteasy.config.IdGeneratorSeeder;
+import com.fiteasy.model.WorkoutPlan;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(IdGeneratorSeeder.class)
+class PooledIdGenerationTest {
+
+    @Autowired
+    private WorkoutPlanRepository workoutPlanRepository;
+
+    @Autowired
+    private IdGeneratorSeeder idGeneratorSeeder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    // Seeding runs at startup outside any transaction, as here
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testSeeder_ContinuesAfterLegacyAutoIncrementIds() {
+        // Arrange - a row written by the old IDENTITY mapping
+        jdbcTemplate.update("INSERT INTO workout_plans (id, user_id) VALUES (1234, 1)");
+
+        try {
+            // Act
+            idGeneratorSeeder.seed();
+            idGeneratorSeeder.seed();
+            WorkoutPlan saved = workoutPlanRepository.save(new WorkoutPlan(1L));
+
+            // Assert
+            assertEquals(1235L, saved.getId());
+        } finally {
+            workoutPlanRepository.deleteAllInBatch();
+        }
+    }
+
+    @Test
+    void testInserts_AreBatched() {
+        // Arrange
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        List<WorkoutPlan> plans = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            WorkoutPlan plan = new WorkoutPlan((long) i);
+            plan.setTrainer("Trainer " + i);
+            plans.add(plan);
+        }
+        statistics.clear();
+
+        // Act
+        workoutPlanRepository.saveAll(plans);
+        entityManager.flush();
+
+        // Assert - 10 batches of 50 plus 10 id allocations, instead of 500 single-row inserts
+        assertEquals(500, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 25,
+                "expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+        assertEquals(500, plans.stream().map(WorkoutPlan::getId).distinct().count());
+    }
+}
@@ -0,0 +1,128 @@
+package com.fiteasy.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiteasy.model.HelpingTool;
+import com.fiteasy.model.WorkoutPlan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SummaryProjectionTest {
+
+    private static final int PLANS = 5_000;
+
+    @Autowired
+    private WorkoutPlanRepository workoutPlanRepository;
+
+    @Autowired
+    private HelpingToolRepository helpingToolRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @AfterEach
+    void tearDown() {
+        workoutPlanRepository.deleteAllInBatch();
+        helpingToolRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testFindSummariesByUserId_KeepsFullWorkOutWhilePreviewsCutIt() {
+        // Arrange
+        insertPlans(1L, 3);
+
+        // Act
+        List<WorkoutPlanSummary> summaries = workoutPlanRepository.findSummariesByUserId(1L);
+        List<WorkoutPlanSummary> byIds = workoutPlanRepository.findPreviewsByIdIn(List.of(2L, 3L));
+
+        // Assert
+        assertEquals(3, summaries.size());
+        assertEquals(500, summaries.get(0).workOut().length());
+        assertEquals("Trainer 1", summaries.get(0).trainer());
+        assertEquals(List.of(2L, 3L), byIds.stream().map(WorkoutPlanSummary::id).sorted().toList());
+        assertEquals(WorkoutPlanSummary.WORK_OUT_PREVIEW_LENGTH, byIds.get(0).workOut().length());
+    }
+
+    @Test
+    void testFindSummariesByUserIdAndType_MatchesEntities() {
+        // Arrange
+        helpingToolRepository.save(new HelpingTool(1L, HelpingTool.ToolType.youtube, "https://youtube.com/watch?v=1", "Warm up"));
+        helpingToolRepository.save(new HelpingTool(1L, HelpingTool.ToolType.equipment, "https://example.com/bench"));
+
+        // Act
+        List<HelpingToolSummary> youtube = helpingToolRepository.findSummariesByUserIdAndType(1L, HelpingTool.ToolType.youtube);
+
+        // Assert
+        assertEquals(List.of(HelpingToolSummary.of(helpingToolRepository.findByUserIdAndType(1L, HelpingTool.ToolType.youtube).get(0))),
+                youtube);
+        assertEquals(2, helpingToolRepository.findSummariesByUserId(1L).size());
+    }
+
+    // One query for a user with 5,000 plans: the projection skips managed entities and their
+    // snapshots, and serializes to the same JSON as the entities it replaces
+    @Test
+    void testSummaries_AllocateLessThanEntitiesForLargeUser() throws Exception {
+        // Arrange
+        insertPlans(7L, PLANS);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Supplier<List<?>> entities = () -> transaction.execute(status -> workoutPlanRepository.findByUserId(7L));
+        Supplier<List<?>> summaries = () -> transaction.execute(status -> workoutPlanRepository.findSummariesByUserId(7L));
+
+        // Act
+        long entityBytes = allocatedPerRequest(entities);
+        long summaryBytes = allocatedPerRequest(summaries);
+        int entityJson = objectMapper.writeValueAsBytes(entities.get()).length;
+        int summaryJson = objectMapper.writeValueAsBytes(summaries.get()).length;
+
+        // Assert
+        assertTrue(summaryBytes < entityBytes * 0.8,
+                "summaries allocated " + summaryBytes + " bytes, entities " + entityBytes);
+        assertEquals(entityJson, summaryJson);
+    }
+
+    // Lowest of a few runs after a warm-up, so JIT and class loading do not count
+    private long allocatedPerRequest(Supplier<List<?>> request) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        request.get();
+        long lowest = Long.MAX_VALUE;
+        for (int run = 0; run < 3; run++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            List<?> rows = request.get();
+            lowest = Math.min(lowest, threads.getCurrentThreadAllocatedBytes() - before);
+            assertEquals(PLANS, rows.size());
+        }
+        return lowest;
+    }
+
+    private void insertPlans(Long userId, int count) {
+        String workOut = "Squats, lunges and a long cool down. ".repeat(14).substring(0, 500);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            rows.add(new Object[]{(long) i, userId, "22.5", 30, "Male", 180, 75, "Trainer " + i, "Gym " + i, "1h", workOut, "3x10"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO workout_plans (id, user_id, bmi_data, age, gender, height, weight, trainer, " +
+                "gym_name, spent_time_in_gym, work_out, reps_sets, date_created, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_DATE, CURRENT_TIMESTAMP)", rows);
+    }
+}
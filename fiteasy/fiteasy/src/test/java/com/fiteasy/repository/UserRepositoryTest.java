@@ -0,0 +1,119 @@
+package com.fiteasy.repository;
+
+import com.fiteasy.model.HelpingTool;
+import com.fiteasy.model.User;
+import com.fiteasy.model.UserCounter;
+import com.fiteasy.model.WorkoutPlan;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkoutPlanRepository workoutPlanRepository;
+
+    @Autowired
+    private HelpingToolRepository helpingToolRepository;
+
+    @Autowired
+    private UserCounterRepository userCounterRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User("testuser", "test@example.com", "Password123");
+        testUser.setName("Test User");
+        testUser = userRepository.save(testUser);
+
+        WorkoutPlan withBmi = new WorkoutPlan(testUser.getId());
+        withBmi.setBmiData("22.86");
+        workoutPlanRepository.save(withBmi);
+        workoutPlanRepository.save(new WorkoutPlan(testUser.getId()));
+
+        helpingToolRepository.save(new HelpingTool(testUser.getId(), HelpingTool.ToolType.youtube, "https://youtube.com/a"));
+        helpingToolRepository.save(new HelpingTool(testUser.getId(), HelpingTool.ToolType.youtube, "https://youtube.com/b"));
+        helpingToolRepository.save(new HelpingTool(testUser.getId(), HelpingTool.ToolType.equipment, "https://shop.com/c"));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testFindDashboardCounts_SingleStatement() {
+        // Arrange
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        Optional<UserDashboardCounts> result = userRepository.findDashboardCounts(
+                testUser.getId(), HelpingTool.ToolType.youtube, HelpingTool.ToolType.equipment);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(1, result.get().getUserDetails());
+        assertEquals(1L, result.get().getBmiResults());
+        assertEquals(2L, result.get().getWorkoutPlans());
+        assertEquals(2L, result.get().getYoutubeTools());
+        assertEquals(1L, result.get().getEquipmentTools());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindDashboardCounts_UserNotFound() {
+        // Act
+        Optional<UserDashboardCounts> result = userRepository.findDashboardCounts(
+                -1L, HelpingTool.ToolType.youtube, HelpingTool.ToolType.equipment);
+
+        // Assert
+        assertFalse(result.isPresent());
+    }
+
+    @Test
+    void testFindDashboardCountsFromCounters() {
+        // Arrange
+        UserCounter counter = new UserCounter(testUser.getId());
+        counter.setWorkoutPlans(2);
+        counter.setBmiResults(1);
+        counter.setYoutubeTools(2);
+        counter.setEquipmentTools(1);
+        userCounterRepository.save(counter);
+
+        // Act
+        Optional<UserDashboardCounts> result = userRepository.findDashboardCountsFromCounters(testUser.getId());
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(1, result.get().getUserDetails());
+        assertEquals(2L, result.get().getWorkoutPlans());
+        assertEquals(1L, result.get().getEquipmentTools());
+    }
+
+    @Test
+    void testFindDashboardCountsFromCounters_NoCounterRow() {
+        // Act
+        Optional<UserDashboardCounts> result = userRepository.findDashboardCountsFromCounters(testUser.getId());
+
+        // Assert
+        assertFalse(result.isPresent());
+    }
+}
@@ -0,0 +1,89 @@
+package com.fiteasy.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HelpingToolSearchIndexTest {
+
+    private HelpingToolSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new HelpingToolSearchIndex();
+        index.add(1L, 1L, "https://www.youtube.com/watch?v=squat101", "Squat form tutorial");
+        index.add(2L, 1L, "https://www.amazon.com/kettlebell-set", "Kettlebell set for home workouts");
+        index.add(3L, 2L, "https://youtu.be/abc", "Kettlebell swing and squat tutorial");
+        index.markReady();
+    }
+
+    @Test
+    void testSearchDescription_RequiresAllTokens() {
+        // Act
+        List<Long> result = index.search(HelpingToolSearchIndex.Field.DESCRIPTION, "squat tutorial", 10);
+
+        // Assert
+        assertEquals(List.of(3L, 1L), result);
+    }
+
+    @Test
+    void testSearchDescription_RanksWholeWordAbovePrefix() {
+        // Arrange
+        index.add(4L, 2L, null, "Workout planner");
+
+        // Act
+        List<Long> result = index.search(HelpingToolSearchIndex.Field.DESCRIPTION, "workout", 10);
+
+        // Assert
+        assertEquals(List.of(4L, 2L), result);
+    }
+
+    @Test
+    void testSearchUrl_MatchesHostAndPathTokensIgnoringScheme() {
+        // Act & Assert
+        assertEquals(List.of(1L), index.search(HelpingToolSearchIndex.Field.URL, "YouTube", 10));
+        assertEquals(List.of(2L), index.search(HelpingToolSearchIndex.Field.URL, "kettlebell", 10));
+        assertTrue(index.search(HelpingToolSearchIndex.Field.URL, "https://", 10).isEmpty());
+    }
+
+    @Test
+    void testTokenize_IgnoresTheDefaultLocale() {
+        // Arrange - Turkish lowercases "I" to a dotless "ı"
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            // Act
+            index.add(4L, 2L, "https://example.com/LINKS", "LIFTING INTERVALS");
+
+            // Assert
+            assertEquals(List.of(4L), index.search(HelpingToolSearchIndex.Field.DESCRIPTION, "lifting intervals", 10));
+            assertEquals(List.of(4L), index.search(HelpingToolSearchIndex.Field.URL, "links", 10));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void testAddExistingId_ReplacesPreviousTerms() {
+        // Act
+        index.add(1L, 1L, "https://www.youtube.com/watch?v=deadlift", "Deadlift basics");
+
+        // Assert
+        assertTrue(index.search(HelpingToolSearchIndex.Field.DESCRIPTION, "squat form", 10).isEmpty());
+        assertEquals(List.of(1L), index.search(HelpingToolSearchIndex.Field.DESCRIPTION, "deadlift", 10));
+    }
+
+    @Test
+    void testRemoveByUserId_DropsAllUserDocuments() {
+        // Act
+        index.removeByUserId(1L);
+
+        // Assert
+        assertEquals(1, index.size());
+        assertEquals(List.of(3L), index.search(HelpingToolSearchIndex.Field.DESCRIPTION, "kettlebell", 10));
+    }
+}
@@ -0,0 +1,81 @@
+package com.fiteasy.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.add(1L, "John Doe");
+        index.add(2L, "Sarah Johnson");
+        index.add(3L, "John  Doe ");
+        index.add(4L, "Mike Tyson");
+    }
+
+    @Test
+    void testSearch_SubstringMatchesPrefixFirstAndNewestIdFirst() {
+        // Act
+        List<Long> result = index.search("JOHN", false, 0.5, 0, 10);
+
+        // Assert
+        assertEquals(List.of(3L, 1L, 2L), result);
+        assertEquals(3, index.distinctNames());
+    }
+
+    @Test
+    void testSearch_IgnoresTheDefaultLocale() {
+        // Arrange - Turkish lowercases "I" to a dotless "ı"
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            index.add(5L, "MIKE TYSON");
+
+            // Act & Assert
+            assertEquals(List.of(5L, 4L), index.search("mike", false, 0.5, 0, 10));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void testSearch_ShortQueryWithoutTrigrams() {
+        // Act & Assert
+        assertEquals(List.of(4L), index.search("ty", false, 0.5, 0, 10));
+    }
+
+    @Test
+    void testSearch_FuzzyToleratesTypos() {
+        // Act & Assert
+        assertTrue(index.search("jon doe", false, 0.5, 0, 10).isEmpty());
+        assertEquals(List.of(3L, 1L), index.search("jon doe", true, 0.5, 0, 10));
+    }
+
+    @Test
+    void testSearch_Paging() {
+        // Act & Assert
+        assertEquals(List.of(3L, 1L), index.search("john", false, 0.5, 0, 2));
+        assertEquals(List.of(2L), index.search("john", false, 0.5, 2, 2));
+        assertTrue(index.search("john", false, 0.5, 4, 2).isEmpty());
+    }
+
+    @Test
+    void testAddAndRemove_UpdatePostings() {
+        // Act
+        index.add(4L, "Mike Johnson");
+        index.remove(2L);
+
+        // Assert
+        assertEquals(List.of(4L), index.search("johnson", false, 0.5, 0, 10));
+        assertTrue(index.search("tyson", true, 0.5, 0, 10).isEmpty());
+        assertEquals(2, index.distinctNames());
+    }
+}
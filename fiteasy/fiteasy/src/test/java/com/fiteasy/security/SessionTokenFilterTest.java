@@ -0,0 +1,126 @@
+package com.fiteasy.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTokenFilterTest {
+
+    private final SessionTokenService tokens = start();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testValidToken_AuthenticatesWithoutLookup() throws Exception {
+        // Arrange
+        SessionTokenFilter filter = new SessionTokenFilter(tokens, true);
+        MockHttpServletRequest request = request("/api/workout-plans/user/42", tokens.issue(42L).token());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+        assertEquals(42L, request.getAttribute(SessionTokenFilter.USER_ID_ATTRIBUTE));
+        assertEquals(42L, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+    }
+
+    @Test
+    void testInvalidToken_Returns401WhenRequired() throws Exception {
+        // Arrange
+        SessionTokenFilter filter = new SessionTokenFilter(tokens, true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request("/api/users/42", "fiteasy-token-42"), response, chain);
+
+        // Assert
+        assertEquals(401, response.getStatus());
+        assertEquals("{\"message\":\"Invalid or expired session token\"}", response.getContentAsString());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void testLegacyOrForeignToken_ContinuesAnonymouslyWhenNotRequired() throws Exception {
+        // Arrange
+        SessionTokenFilter filter = new SessionTokenFilter(tokens, false);
+        String otherKey = start().issue(42L).token();
+        MockHttpServletRequest legacy = request("/api/users/42", "fiteasy-token-42");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(legacy, response, chain);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+        assertNull(legacy.getAttribute(SessionTokenFilter.USER_ID_ATTRIBUTE));
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(200, status(filter, request("/api/workout-plans/user/42", otherKey)));
+    }
+
+    @Test
+    void testMissingToken_RejectedOnlyWhenRequiredAndNotPublic() throws Exception {
+        // Arrange
+        SessionTokenFilter required = new SessionTokenFilter(tokens, true);
+        SessionTokenFilter optional = new SessionTokenFilter(tokens, false);
+
+        // Act & Assert
+        assertEquals(401, status(required, request("/api/users/42", null)));
+        assertEquals(200, status(optional, request("/api/users/42", null)));
+        assertEquals(200, status(required, request("/api/users/login", null)));
+        assertEquals(200, status(required, request("/api/users/check-email/a@b.com", null)));
+    }
+
+    @Test
+    void testStaleTokenOnLogin_IsIgnored() throws Exception {
+        // Arrange
+        SessionTokenFilter filter = new SessionTokenFilter(tokens, true);
+
+        // Act & Assert
+        assertEquals(200, status(filter, request("/api/users/login", "fiteasy-token-42")));
+    }
+
+    private static int status(SessionTokenFilter filter, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static MockHttpServletRequest request(String uri, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+
+    private static SessionTokenService start() {
+        SessionTokenService tokens = new SessionTokenService();
+        ReflectionTestUtils.setField(tokens, "keys", "");
+        ReflectionTestUtils.setField(tokens, "tokenTtl", Duration.ofHours(12));
+        ReflectionTestUtils.setField(tokens, "revocationTick", Duration.ofMinutes(1));
+        try {
+            tokens.init();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return tokens;
+    }
+}
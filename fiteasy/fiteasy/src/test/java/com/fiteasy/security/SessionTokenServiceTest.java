@@ -0,0 +1,143 @@
+package com.fiteasy.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTokenServiceTest {
+
+    private static final String KEY_1 = "1:" + Base64.getEncoder().encodeToString(new byte[32]);
+    private static final String KEY_2 = "2:" + Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+    private Instant now = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Test
+    void testIssueAndVerify_RoundTripsUserIdAndExpiry() throws Exception {
+        // Arrange
+        SessionTokenService tokens = start(KEY_1, 1);
+
+        // Act
+        SessionTokenService.IssuedToken issued = tokens.issue(42L);
+        Optional<SessionTokenService.Session> session = tokens.verify(issued.token());
+
+        // Assert
+        assertTrue(session.isPresent());
+        assertEquals(42L, session.get().userId());
+        assertEquals(now.plus(Duration.ofHours(12)), session.get().expiresAt());
+        assertEquals(issued.expiresAt(), session.get().expiresAt());
+        assertTrue(issued.token().length() < 80);
+    }
+
+    @Test
+    void testTamperedMalformedAndExpiredTokens_AreRejected() throws Exception {
+        // Arrange
+        SessionTokenService tokens = start(KEY_1, 1);
+        String token = tokens.issue(42L).token();
+        byte[] bytes = Base64.getUrlDecoder().decode(token);
+        bytes[8] ^= 1; // flip a bit of the user id
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        // Act & Assert
+        assertTrue(tokens.verify(tampered).isEmpty());
+        assertTrue(tokens.verify("fiteasy-token-42").isEmpty());
+        assertTrue(tokens.verify("not base64 at all!").isEmpty());
+        assertTrue(tokens.verify(null).isEmpty());
+
+        now = now.plus(Duration.ofHours(12));
+        assertTrue(tokens.verify(token).isEmpty());
+    }
+
+    @Test
+    void testKeyRotation_OldTokensVerifyUntilTheirKeyIsDropped() throws Exception {
+        // Arrange
+        String signedWithKey1 = start(KEY_1, 1).issue(7L).token();
+
+        // Act
+        SessionTokenService rotated = start(KEY_1 + "," + KEY_2, 2);
+        SessionTokenService retired = start(KEY_2, 2);
+
+        // Assert
+        assertEquals(7L, rotated.verify(signedWithKey1).orElseThrow().userId());
+        assertEquals(7L, retired.verify(rotated.issue(7L).token()).orElseThrow().userId());
+        assertTrue(retired.verify(signedWithKey1).isEmpty());
+    }
+
+    @Test
+    void testRevoke_RejectsUntilExpiryThenForgets() throws Exception {
+        // Arrange
+        SessionTokenService tokens = start(KEY_1, 1);
+        String revoked = tokens.issue(42L).token();
+        String other = tokens.issue(42L).token();
+
+        // Act
+        assertTrue(tokens.revoke(revoked));
+
+        // Assert
+        assertTrue(tokens.verify(revoked).isEmpty());
+        assertTrue(tokens.verify(other).isPresent());
+        assertFalse(tokens.revoke(revoked));
+
+        now = now.plus(Duration.ofHours(13));
+        tokens.expireRevocations();
+        assertEquals(0, tokens.revokedCount());
+    }
+
+    @Test
+    void testMissingActiveKey_FailsAtStartup() {
+        assertThrows(IllegalStateException.class, () -> start(KEY_1, 2));
+    }
+
+    @Test
+    void testNoKeys_FailsAtStartupOnlyWhenTokensRequiredOutsideDevAndTest() throws Exception {
+        // Arrange
+        MockEnvironment production = new MockEnvironment();
+        MockEnvironment dev = new MockEnvironment();
+        dev.setActiveProfiles("dev");
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> start("", 0, true, production));
+        assertNotNull(start("", 0, true, dev).issue(42L));
+        assertNotNull(start("", 0, false, production).issue(42L));
+    }
+
+    private SessionTokenService start(String keys, int activeKeyId) throws Exception {
+        return start(keys, activeKeyId, false, new MockEnvironment());
+    }
+
+    private SessionTokenService start(String keys, int activeKeyId, boolean requireToken, MockEnvironment environment) throws Exception {
+        SessionTokenService tokens = new SessionTokenService();
+        ReflectionTestUtils.setField(tokens, "requireToken", requireToken);
+        ReflectionTestUtils.setField(tokens, "environment", environment);
+        ReflectionTestUtils.setField(tokens, "keys", keys);
+        ReflectionTestUtils.setField(tokens, "activeKeyId", activeKeyId);
+        ReflectionTestUtils.setField(tokens, "tokenTtl", Duration.ofHours(12));
+        ReflectionTestUtils.setField(tokens, "revocationTick", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(tokens, "clock", new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(java.time.ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now;
+            }
+        });
+        tokens.init();
+        return tokens;
+    }
+}
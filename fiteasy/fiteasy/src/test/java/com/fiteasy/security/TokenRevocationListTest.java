@@ -0,0 +1,48 @@
+package com.fiteasy.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationListTest {
+
+    private static final long NOW = 1_767_261_600L;
+
+    @Test
+    void testAdvance_DropsOnlyExpiredEntries() {
+        // Arrange
+        TokenRevocationList revoked = new TokenRevocationList(Duration.ofHours(1), Duration.ofMinutes(1), NOW);
+        revoked.revoke(1L, NOW + 30);
+        revoked.revoke(2L, NOW + 600);
+        revoked.revoke(3L, NOW + 3600);
+
+        // Act & Assert
+        assertEquals(0, revoked.advance(NOW + 29));
+        assertEquals(1, revoked.advance(NOW + 120));
+        assertFalse(revoked.isRevoked(1L));
+        assertTrue(revoked.isRevoked(2L));
+        assertTrue(revoked.isRevoked(3L));
+
+        assertEquals(1, revoked.advance(NOW + 660));
+        assertEquals(1, revoked.size());
+        assertTrue(revoked.isRevoked(3L));
+    }
+
+    @Test
+    void testAdvance_AfterLongPauseSweepsWholeWheel() {
+        // Arrange
+        TokenRevocationList revoked = new TokenRevocationList(Duration.ofMinutes(10), Duration.ofMinutes(1), NOW);
+        for (long id = 0; id < 100; id++) {
+            revoked.revoke(id, NOW + id * 6);
+        }
+
+        // Act
+        int dropped = revoked.advance(NOW + Duration.ofDays(2).toSeconds());
+
+        // Assert
+        assertEquals(100, dropped);
+        assertEquals(0, revoked.size());
+    }
+}
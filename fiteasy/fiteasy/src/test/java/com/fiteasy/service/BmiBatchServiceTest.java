@@ -0,0 +1,101 @@
+package com.fiteasy.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BmiBatchServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private BmiBatchService bmiBatchService;
+
+    @BeforeEach
+    void setUp() {
+        bmiBatchService = new BmiBatchService();
+        ReflectionTestUtils.setField(bmiBatchService, "objectMapper", objectMapper);
+    }
+
+    @Test
+    void testCalculateJson_ResultsInInputOrderWithPerRowErrors() throws Exception {
+        // Arrange
+        String body = "[{\"id\":7,\"height\":175,\"weight\":70.5},"
+                + "{\"id\":\"p-2\",\"height\":\"160\",\"weight\":\"40\",\"note\":{\"x\":1}},"
+                + "{\"height\":-1,\"weight\":70},"
+                + "{\"weight\":70},"
+                + "42]";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long rows = bmiBatchService.calculateJson(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+
+        // Assert
+        JsonNode result = objectMapper.readTree(out.toByteArray());
+        assertEquals(5, rows);
+        assertEquals(5, result.size());
+        assertEquals(7, result.get(0).get("id").asInt());
+        assertEquals("23.02", result.get(0).get("bmi").asText());
+        assertEquals("Normal weight", result.get(0).get("category").asText());
+        assertEquals("p-2", result.get(1).get("id").asText());
+        assertEquals("15.63", result.get(1).get("bmi").asText());
+        assertEquals("Underweight", result.get(1).get("category").asText());
+        assertEquals("Height and weight must be positive numbers", result.get(2).get("error").asText());
+        assertEquals("Both height and weight are required", result.get(3).get("error").asText());
+        assertEquals("Each measurement must be an object", result.get(4).get("error").asText());
+        assertEquals(4, result.get(4).get("index").asInt());
+    }
+
+    @Test
+    void testCalculateJson_RejectsNonArrayBody() {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                bmiBatchService.calculateJson(new ByteArrayInputStream("{\"height\":175}".getBytes(StandardCharsets.UTF_8)), out));
+
+        assertEquals("Expected a JSON array of measurements", exception.getMessage());
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void testCalculateCsv_WithHeader() throws Exception {
+        // Arrange
+        String body = "weight,height,id\n70,175,a1\n\n120,180,a2\nx,175,a3\n";
+        StringWriter out = new StringWriter();
+
+        // Act
+        long rows = bmiBatchService.calculateCsv(new StringReader(body), out);
+
+        // Assert
+        assertEquals(3, rows);
+        assertEquals("row,id,bmi,category,error\n"
+                + "1,a1,22.86,Normal weight,\n"
+                + "2,a2,37.04,Obese,\n"
+                + "3,a3,,,Invalid number: x\n", out.toString());
+    }
+
+    @Test
+    void testCalculateCsv_WithoutHeader() throws Exception {
+        // Arrange
+        StringWriter out = new StringWriter();
+
+        // Act
+        bmiBatchService.calculateCsv(new StringReader("175,70\n190,\n"), out);
+
+        // Assert
+        assertEquals("row,id,bmi,category,error\n"
+                + "1,,22.86,Normal weight,\n"
+                + "2,,,,Both height and weight are required\n", out.toString());
+    }
+}
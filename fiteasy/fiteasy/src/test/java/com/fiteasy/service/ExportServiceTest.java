@@ -0,0 +1,88 @@
+package com.fiteasy.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiteasy.model.HelpingTool;
+import com.fiteasy.model.WorkoutPlan;
+import com.fiteasy.repository.HelpingToolRepository;
+import com.fiteasy.repository.WorkoutPlanRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(ExportService.class)
+class ExportServiceTest {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private WorkoutPlanRepository workoutPlanRepository;
+
+    @Autowired
+    private HelpingToolRepository helpingToolRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testExportWorkoutPlans_FilteredByUserAsNdjson() throws Exception {
+        // Arrange
+        WorkoutPlan first = new WorkoutPlan(1L);
+        first.setWorkOut("Squats");
+        workoutPlanRepository.save(first);
+        WorkoutPlan second = new WorkoutPlan(1L);
+        second.setWorkOut("Deadlifts");
+        workoutPlanRepository.save(second);
+        workoutPlanRepository.save(new WorkoutPlan(2L));
+        entityManager.flush();
+        entityManager.clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long exported = exportService.exportWorkoutPlans(1L, null, null, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, exported);
+        assertEquals(2, lines.length);
+        JsonNode firstLine = objectMapper.readTree(lines[0]);
+        assertEquals("Squats", firstLine.get("workOut").asText());
+        assertEquals("Deadlifts", objectMapper.readTree(lines[1]).get("workOut").asText());
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("\n"));
+    }
+
+    @Test
+    void testExportHelpingTools_FilteredByDateRange() throws Exception {
+        // Arrange
+        HelpingTool old = new HelpingTool(1L, HelpingTool.ToolType.youtube, "https://youtube.com/old");
+        old.setCreatedAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+        helpingToolRepository.save(old);
+        HelpingTool recent = new HelpingTool(1L, HelpingTool.ToolType.equipment, "https://shop.com/new");
+        recent.setCreatedAt(LocalDateTime.of(2025, 6, 1, 10, 0));
+        helpingToolRepository.save(recent);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long exported = exportService.exportHelpingTools(null, LocalDateTime.of(2025, 1, 1, 0, 0), null, out);
+
+        // Assert
+        assertEquals(1, exported);
+        assertEquals("https://shop.com/new", objectMapper.readTree(out.toString(StandardCharsets.UTF_8)).get("url").asText());
+    }
+}
@@ -0,0 +1,168 @@
+package com.fiteasy.service;
+
+import com.fiteasy.model.HelpingTool;
+import com.fiteasy.model.User;
+import com.fiteasy.model.UserCounter;
+import com.fiteasy.repository.HelpingToolRepository;
+import com.fiteasy.repository.UserCounterRepository;
+import com.fiteasy.repository.UserRepository;
+import com.fiteasy.search.HelpingToolSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk deletes must cost the same number of statements for 5 rows as for 500.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({HelpingToolService.class, UserCounterService.class})
+class HelpingToolBulkDeleteTest {
+
+    @Autowired
+    private HelpingToolService helpingToolService;
+
+    @Autowired
+    private HelpingToolRepository helpingToolRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCounterRepository userCounterRepository;
+
+    @Autowired
+    private UserCounterService userCounterService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private HelpingToolSearchIndex searchIndex;
+
+    @MockitoBean
+    private CacheManager cacheManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testDeleteByUserIdAndType_StatementCountDoesNotGrowWithRows() {
+        // Arrange
+        Long small = userWithTools("small", 5);
+        Long large = userWithTools("large", 500);
+
+        // Act
+        long smallStatements = statements(() -> helpingToolService.deleteHelpingToolsByUserIdAndType(small, HelpingTool.ToolType.youtube));
+        long largeStatements = statements(() -> helpingToolService.deleteHelpingToolsByUserIdAndType(large, HelpingTool.ToolType.youtube));
+
+        // Assert - equipment rows are untouched and counters follow the deleted rows
+        assertEquals(smallStatements, largeStatements);
+        assertEquals(0, helpingToolRepository.countByUserIdAndType(large, HelpingTool.ToolType.youtube));
+        assertEquals(500, helpingToolRepository.countByUserIdAndType(large, HelpingTool.ToolType.equipment));
+        UserCounter counter = userCounterRepository.findById(large).orElseThrow();
+        assertEquals(0, counter.getYoutubeTools());
+        assertEquals(500, counter.getEquipmentTools());
+    }
+
+    @Test
+    void testDeleteByIds_StatementCountDoesNotGrowWithRows() {
+        // Arrange
+        Long small = userWithTools("small", 5);
+        Long large = userWithTools("large", 500);
+        List<Long> smallIds = ids(small, HelpingTool.ToolType.youtube, 5);
+        List<Long> largeIds = ids(large, HelpingTool.ToolType.youtube, 500);
+        largeIds.add(-1L);
+
+        // Act
+        int[] deleted = new int[2];
+        long smallStatements = statements(() -> deleted[0] = helpingToolService.deleteHelpingTools(smallIds));
+        long largeStatements = statements(() -> deleted[1] = helpingToolService.deleteHelpingTools(largeIds));
+
+        // Assert - the unknown id is skipped
+        assertEquals(smallStatements, largeStatements);
+        assertEquals(5, deleted[0]);
+        assertEquals(500, deleted[1]);
+        assertEquals(500, helpingToolRepository.countByUserId(large));
+        assertEquals(0, userCounterRepository.findById(large).orElseThrow().getYoutubeTools());
+    }
+
+    @Test
+    void testDeleteByIds_SpansUsersAndTypes() {
+        // Arrange
+        Long first = userWithTools("first", 3);
+        Long second = userWithTools("second", 3);
+        List<Long> ids = new ArrayList<>(ids(first, HelpingTool.ToolType.youtube, 2));
+        ids.addAll(ids(first, HelpingTool.ToolType.equipment, 1));
+        ids.addAll(ids(second, HelpingTool.ToolType.equipment, 3));
+
+        // Act
+        int deleted = helpingToolService.deleteHelpingTools(ids);
+
+        // Assert
+        assertEquals(6, deleted);
+        UserCounter firstCounter = userCounterRepository.findById(first).orElseThrow();
+        assertEquals(1, firstCounter.getYoutubeTools());
+        assertEquals(2, firstCounter.getEquipmentTools());
+        UserCounter secondCounter = userCounterRepository.findById(second).orElseThrow();
+        assertEquals(3, secondCounter.getYoutubeTools());
+        assertEquals(0, secondCounter.getEquipmentTools());
+    }
+
+    @Test
+    void testDeleteByIds_RejectsOversizedBatches() {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 0; i <= HelpingToolService.MAX_BATCH_DELETE; i++) {
+            ids.add(i);
+        }
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> helpingToolService.deleteHelpingTools(ids));
+        assertEquals("At most 1000 helping tools can be deleted at once", exception.getMessage());
+        assertEquals(0, helpingToolService.deleteHelpingTools(List.of()));
+    }
+
+    // A user with `count` tools of each type and an up-to-date counter row
+    private Long userWithTools(String username, int count) {
+        Long userId = userRepository.save(new User(username, username + "@example.com", "Password123")).getId();
+        List<HelpingTool> tools = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tools.add(new HelpingTool(userId, HelpingTool.ToolType.youtube, "https://youtube.com/watch?v=" + i, "Video " + i));
+            tools.add(new HelpingTool(userId, HelpingTool.ToolType.equipment, "https://example.com/gear/" + i, "Gear " + i));
+        }
+        helpingToolRepository.saveAll(tools);
+        entityManager.flush();
+        userCounterService.rebuildCounters(userId);
+        entityManager.flush();
+        entityManager.clear();
+        return userId;
+    }
+
+    private List<Long> ids(Long userId, HelpingTool.ToolType type, int limit) {
+        return new ArrayList<>(helpingToolRepository.findIdsByUserIdAndType(userId, type).stream().limit(limit).toList());
+    }
+
+    private long statements(Runnable delete) {
+        statistics.clear();
+        delete.run();
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,166 @@
+package com.fiteasy.service;
+
+import com.fiteasy.model.HelpingTool;
+import com.fiteasy.model.User;
+import com.fiteasy.model.WorkoutPlan;
+import com.fiteasy.repository.HelpingToolRepository;
+import com.fiteasy.repository.UserRepository;
+import com.fiteasy.repository.WorkoutPlanRepository;
+import com.fiteasy.search.HelpingToolSearchIndex;
+import com.fiteasy.search.WorkoutPlanNameIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "app.orphans.sweep.batch-size=4",
+        "app.orphans.sweep.batches-per-second=0"
+})
+@Import(OrphanSweeper.class)
+class OrphanSweeperTest {
+
+    private static final long MISSING_USER = 999_999L;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private OrphanSweeper orphanSweeper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkoutPlanRepository workoutPlanRepository;
+
+    @Autowired
+    private HelpingToolRepository helpingToolRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private WorkoutPlanNameIndex nameIndex;
+
+    @MockitoBean
+    private HelpingToolSearchIndex searchIndex;
+
+    @MockitoBean
+    private CacheManager cacheManager;
+
+    @Test
+    void testSweepAll_DeletesOnlyRowsOfMissingUsers() {
+        // Arrange - owned and orphaned rows interleaved across several batches
+        Long userId = userRepository.save(new User("owner", "owner@example.com", "Password123")).getId();
+        for (int i = 0; i < 9; i++) {
+            plans(userId, 1);
+            plans(MISSING_USER + i % 2, 2);
+            tools(userId, 1);
+            tools(MISSING_USER, 1);
+        }
+
+        // Act
+        List<OrphanSweeper.SweepReport> reports = orphanSweeper.sweepAll();
+
+        // Assert
+        assertEquals(new OrphanSweeper.SweepReport("workout_plans", 27, 18, reports.get(0).millis()), reports.get(0));
+        assertEquals(new OrphanSweeper.SweepReport("helping_tools", 18, 9, reports.get(1).millis()), reports.get(1));
+        assertEquals(9, workoutPlanRepository.count());
+        assertEquals(9, workoutPlanRepository.countByUserId(userId));
+        assertEquals(9, helpingToolRepository.count());
+        assertEquals(9, helpingToolRepository.countByUserId(userId));
+    }
+
+    @Test
+    void testSweepAll_LeavesSoftDeletedUsersToThePurger() {
+        // Arrange - marked deleted but not purged yet: hidden from JPQL, still in the table
+        Long deletedId = userRepository.saveAndFlush(new User("leaving", "leaving@example.com", "Password123")).getId();
+        plans(deletedId, 3);
+        tools(deletedId, 2);
+        jdbcTemplate.update("UPDATE users SET deleted_at = CURRENT_TIMESTAMP WHERE id = ?", deletedId);
+        plans(MISSING_USER, 1);
+
+        // Act
+        List<OrphanSweeper.SweepReport> reports = orphanSweeper.sweepAll();
+
+        // Assert
+        assertEquals(1, reports.get(0).reclaimed());
+        assertEquals(0, reports.get(1).reclaimed());
+        assertEquals(3, workoutPlanRepository.countByUserId(deletedId));
+        assertEquals(2, helpingToolRepository.countByUserId(deletedId));
+    }
+
+    @Test
+    void testSweep_StopsAfterMaxDeletes() {
+        // Arrange
+        ReflectionTestUtils.setField(orphanSweeper, "maxDeletes", 5L);
+        plans(MISSING_USER, 12);
+
+        try {
+            // Act
+            OrphanSweeper.SweepReport report = orphanSweeper.sweepWorkoutPlans();
+
+            // Assert - whole batches of 4, so the run ends on the batch that crosses the limit
+            assertEquals(8, report.reclaimed());
+            assertEquals(4, workoutPlanRepository.count());
+        } finally {
+            ReflectionTestUtils.setField(orphanSweeper, "maxDeletes", 50000L);
+        }
+    }
+
+    @Test
+    void testSweep_IsPacedToTheConfiguredRate() {
+        // Arrange - 5 batches at 20 per second take at least 250 ms
+        ReflectionTestUtils.setField(orphanSweeper, "batchesPerSecond", 20);
+        plans(MISSING_USER, 20);
+
+        try {
+            // Act
+            long started = System.nanoTime();
+            OrphanSweeper.SweepReport report = orphanSweeper.sweepWorkoutPlans();
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+            // Assert
+            assertEquals(20, report.reclaimed());
+            assertTrue(elapsedMillis >= 240, "sweep took only " + elapsedMillis + " ms");
+        } finally {
+            ReflectionTestUtils.setField(orphanSweeper, "batchesPerSecond", 0);
+        }
+    }
+
+    private void plans(Long userId, int count) {
+        List<WorkoutPlan> plans = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            plans.add(new WorkoutPlan(userId));
+        }
+        workoutPlanRepository.saveAll(plans);
+    }
+
+    private void tools(Long userId, int count) {
+        List<HelpingTool> tools = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tools.add(new HelpingTool(userId, HelpingTool.ToolType.equipment, "https://example.com/" + i, null));
+        }
+        helpingToolRepository.saveAll(tools);
+    }
+}
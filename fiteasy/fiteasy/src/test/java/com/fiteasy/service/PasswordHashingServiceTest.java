@@ -0,0 +1,109 @@
+package com.fiteasy.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void testHashAndMatches_RunOnPoolAndRecordLatency() {
+        // Arrange
+        service = start(new BCryptPasswordEncoder(4), 2, 8);
+
+        // Act
+        String hash = service.hash("Password123");
+
+        // Assert
+        assertTrue(PasswordHashingService.isHashed(hash));
+        assertTrue(service.matches("Password123", hash));
+        assertFalse(service.matches("Password124", hash));
+        assertEquals(1, meterRegistry.get("app.password.hashing").tag("operation", "hash").timer().count());
+        assertEquals(2, meterRegistry.get("app.password.hashing").tag("operation", "verify").timer().count());
+        assertEquals(3, meterRegistry.get("app.password.queue.wait").timer().count());
+    }
+
+    @Test
+    void testLegacyPlainTextAndLowerCost_NeedRehash() {
+        // Arrange
+        service = start(new BCryptPasswordEncoder(5), 1, 1);
+        String lowerCost = new BCryptPasswordEncoder(4).encode("Password123");
+
+        // Act & Assert
+        assertTrue(service.matches("Password123", "Password123"));
+        assertFalse(service.matches("Password124", "Password123"));
+        assertTrue(service.needsRehash("Password123"));
+        assertTrue(service.needsRehash(lowerCost));
+        assertFalse(service.needsRehash(service.hash("Password123")));
+    }
+
+    @Test
+    void testFullQueue_ShedsWithSaturatedException() throws Exception {
+        // Arrange - one worker blocked, one task queued
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        service = start(new BlockingEncoder(running, release), 1, 1);
+        Thread first = Thread.ofVirtual().start(() -> service.hash("first"));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        Thread second = Thread.ofVirtual().start(() -> service.hash("second"));
+        while (meterRegistry.get("app.password.queue.depth").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // Act & Assert
+        PasswordHashingService.SaturatedException exception = assertThrows(PasswordHashingService.SaturatedException.class,
+                () -> service.hash("third"));
+        assertEquals("Server is busy, please try again", exception.getMessage());
+        assertEquals(1, meterRegistry.get("app.password.rejected").tag("operation", "hash").counter().count());
+
+        release.countDown();
+        first.join();
+        second.join();
+    }
+
+    private PasswordHashingService start(PasswordEncoder encoder, int threads, int queueCapacity) {
+        PasswordHashingService hashing = new PasswordHashingService();
+        ReflectionTestUtils.setField(hashing, "passwordEncoder", encoder);
+        ReflectionTestUtils.setField(hashing, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(hashing, "threads", threads);
+        ReflectionTestUtils.setField(hashing, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(hashing, "timeoutMillis", 5000L);
+        hashing.start();
+        return hashing;
+    }
+
+    private record BlockingEncoder(CountDownLatch running, CountDownLatch release) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.fiteasy.service;
+
+import com.fiteasy.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserAvailabilityFilterTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final UserAvailabilityFilter filter = new UserAvailabilityFilter();
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        ReflectionTestUtils.setField(filter, "userRepository", userRepository);
+        ReflectionTestUtils.setField(filter, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "expectedUsers", 1000L);
+        ReflectionTestUtils.setField(filter, "falsePositiveProbability", 0.01);
+    }
+
+    @Test
+    void testRebuild_ReplaysRegistrationsMadeWhileStreaming() {
+        // Arrange - "late" registers after the stream's snapshot, so only add() knows about it
+        when(userRepository.streamUsernamesAndEmails()).thenReturn(Stream.of(keys("alice", "alice@example.com"))
+                .peek(key -> filter.add("late", "late@example.com")));
+
+        // Act
+        filter.rebuild();
+
+        // Assert
+        assertTrue(filter.mightContainUsername("alice"));
+        assertTrue(filter.mightContainUsername("late"));
+        assertTrue(filter.mightContainEmail("late@example.com"));
+        assertFalse(filter.mightContainUsername("nobody"));
+    }
+
+    @Test
+    void testRebuild_FailedStreamKeepsThePublishedFilters() {
+        // Arrange
+        when(userRepository.streamUsernamesAndEmails())
+                .thenReturn(Stream.of(keys("alice", "alice@example.com")))
+                .thenThrow(new RuntimeException("Connection reset"));
+        filter.rebuild();
+
+        // Act
+        assertThrows(RuntimeException.class, filter::rebuild);
+        filter.add("bob", "bob@example.com");
+
+        // Assert - recording stopped and later registrations still reach the live filters
+        assertNull(ReflectionTestUtils.getField(filter, "pending"));
+        assertTrue(filter.mightContainUsername("alice"));
+        assertTrue(filter.mightContainUsername("bob"));
+    }
+
+    @Test
+    void testNormalize_FoldsLikeCaseAndAccentInsensitiveCollation() {
+        // Act & Assert
+        assertEquals(UserAvailabilityFilter.normalize("jose"), UserAvailabilityFilter.normalize("José"));
+        assertEquals(UserAvailabilityFilter.normalize("alice"), UserAvailabilityFilter.normalize("ALICE  "));
+        assertEquals(UserAvailabilityFilter.normalize("strasse"), UserAvailabilityFilter.normalize("Straße"));
+        assertNotEquals(UserAvailabilityFilter.normalize("alice"), UserAvailabilityFilter.normalize(" alice"));
+    }
+
+    private static UserRepository.UserKeys keys(String username, String email) {
+        return new UserRepository.UserKeys() {
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package com.fiteasy.service;
+
+import com.fiteasy.model.User;
+import com.fiteasy.model.WorkoutPlan;
+import com.fiteasy.repository.UserCounterRepository;
+import com.fiteasy.repository.UserRepository;
+import com.fiteasy.repository.WorkoutPlanRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two transactions add a user's first workout plans while the user has no counter row yet.
+ * Runs outside the test transaction; each side commits on its own.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@Import(UserCounterService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserCounterConcurrencyTest {
+
+    @Autowired
+    private UserCounterService userCounterService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCounterRepository userCounterRepository;
+
+    @Autowired
+    private WorkoutPlanRepository workoutPlanRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        userCounterRepository.deleteAllInBatch();
+        workoutPlanRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testFirstIncrementsOnMissingRow_NeitherIsLost() throws Exception {
+        // Arrange
+        Long userId = userRepository.save(new User("counted", "counted@example.com", "Password123")).getId();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstRebuilt = new CountDownLatch(1);
+        CountDownLatch secondStarted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // Act - the first transaction creates the row and holds it open while the second adds its plan
+        try {
+            Future<?> first = executor.submit(() -> transaction.executeWithoutResult(status -> {
+                addPlan(userId);
+                firstRebuilt.countDown();
+                await(secondStarted);
+                sleep(300);
+            }));
+            Future<?> second = executor.submit(() -> {
+                await(firstRebuilt);
+                transaction.executeWithoutResult(status -> {
+                    secondStarted.countDown();
+                    addPlan(userId);
+                });
+            });
+            first.get(30, TimeUnit.SECONDS);
+            second.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(2, workoutPlanRepository.countByUserId(userId));
+        assertEquals(2, userCounterRepository.findById(userId).orElseThrow().getWorkoutPlans());
+    }
+
+    private void addPlan(Long userId) {
+        WorkoutPlan plan = new WorkoutPlan(userId);
+        plan.setWorkOut("Squats");
+        workoutPlanRepository.saveAndFlush(plan);
+        userCounterService.workoutPlanAdded(userId, false);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.fiteasy.service;
+
+import com.fiteasy.model.HelpingTool;
+import com.fiteasy.model.User;
+import com.fiteasy.model.UserCounter;
+import com.fiteasy.repository.HelpingToolRepository;
+import com.fiteasy.repository.UserCounterRepository;
+import com.fiteasy.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@Import({UserCounterReconciler.class, UserCounterService.class})
+class UserCounterReconcilerTest {
+
+    @Autowired
+    private UserCounterReconciler userCounterReconciler;
+
+    @Autowired
+    private UserCounterService userCounterService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCounterRepository userCounterRepository;
+
+    @Autowired
+    private HelpingToolRepository helpingToolRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testReconcileChunk_CreatesMissingRowsAndFixesStaleOnes() {
+        // Arrange - one user has no counter row, the other a stale one
+        Long missing = userWithTools("missing", 2);
+        Long stale = userWithTools("stale", 1);
+        UserCounter counter = new UserCounter(stale);
+        counter.setYoutubeTools(9);
+        userCounterRepository.saveAndFlush(counter);
+        entityManager.clear();
+
+        // Act
+        int reconciled = userCounterReconciler.reconcileChunk(List.of(missing, stale));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(2, reconciled);
+        assertEquals(2, userCounterRepository.findById(missing).orElseThrow().getYoutubeTools());
+        assertEquals(1, userCounterRepository.findById(stale).orElseThrow().getYoutubeTools());
+    }
+
+    @Test
+    void testInsertIfAbsent_LeavesAnExistingRowAlone() {
+        // Arrange - a row created by the increment path
+        Long userId = userWithTools("racer", 1);
+        userCounterService.helpingToolAdded(userId, HelpingTool.ToolType.youtube);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act - the reconciler's upsert for the same user
+        userCounterRepository.insertIfAbsent(userId);
+        entityManager.clear();
+
+        // Assert
+        UserCounter counter = userCounterRepository.findById(userId).orElseThrow();
+        assertEquals(1, counter.getYoutubeTools());
+        assertEquals(1, userCounterRepository.count());
+    }
+
+    // A user with `count` youtube tools and no counter row
+    private Long userWithTools(String username, int count) {
+        Long userId = userRepository.save(new User(username, username + "@example.com", "Password123")).getId();
+        for (int i = 0; i < count; i++) {
+            helpingToolRepository.save(new HelpingTool(userId, HelpingTool.ToolType.youtube, "https://youtube.com/watch?v=" + i, "Video " + i));
+        }
+        entityManager.flush();
+        return userId;
+    }
+}
@@ -0,0 +1,109 @@
+package com.fiteasy.service;
+
+import com.fiteasy.model.HelpingTool;
+import com.fiteasy.model.User;
+import com.fiteasy.model.UserCounter;
+import com.fiteasy.repository.UserCounterRepository;
+import com.fiteasy.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCounterServiceTest {
+
+    @Mock
+    private UserCounterRepository userCounterRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserCounterService userCounterService;
+
+    @Test
+    void testWorkoutPlanAdded_IncrementsExistingRow() {
+        // Arrange
+        when(userCounterRepository.adjustCounters(1L, 1, 1, 0, 0)).thenReturn(1);
+
+        // Act
+        userCounterService.workoutPlanAdded(1L, true);
+
+        // Assert
+        verify(userCounterRepository, times(1)).adjustCounters(1L, 1, 1, 0, 0);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testHelpingToolTypeChanged_MovesCountBetweenTypes() {
+        // Arrange
+        when(userCounterRepository.adjustCounters(1L, 0, 0, -1, 1)).thenReturn(1);
+
+        // Act
+        userCounterService.helpingToolTypeChanged(1L, HelpingTool.ToolType.youtube, HelpingTool.ToolType.equipment);
+
+        // Assert
+        verify(userCounterRepository, times(1)).adjustCounters(1L, 0, 0, -1, 1);
+    }
+
+    @Test
+    void testHelpingToolTypeChanged_SameType() {
+        // Act
+        userCounterService.helpingToolTypeChanged(1L, HelpingTool.ToolType.youtube, HelpingTool.ToolType.youtube);
+
+        // Assert
+        verifyNoInteractions(userCounterRepository);
+    }
+
+    @Test
+    void testWorkoutPlanAdded_MissingRowIsRebuilt() {
+        // Arrange
+        UserCounter recounted = new UserCounter(1L);
+        recounted.setWorkoutPlans(7L);
+        when(userCounterRepository.adjustCounters(1L, 1, 0, 0, 0)).thenReturn(0);
+        when(userRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(new User()));
+        when(userCounterRepository.findById(1L)).thenReturn(Optional.of(recounted));
+
+        // Act
+        userCounterService.workoutPlanAdded(1L, false);
+
+        // Assert - the row is upserted first, then recounted by a single UPDATE
+        InOrder order = inOrder(userCounterRepository);
+        order.verify(userCounterRepository).insertIfAbsent(1L);
+        order.verify(userCounterRepository).recountCounters(1L, HelpingTool.ToolType.youtube, HelpingTool.ToolType.equipment);
+        verify(userCounterRepository, never()).save(any(UserCounter.class));
+    }
+
+    @Test
+    void testInitializeCounters_UsesTheUpsert() {
+        // Act
+        userCounterService.initializeCounters(1L);
+
+        // Assert
+        verify(userCounterRepository).insertIfAbsent(1L);
+        verifyNoMoreInteractions(userCounterRepository);
+    }
+
+    @Test
+    void testGetCounters_UserNotFound() {
+        // Arrange
+        when(userCounterRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<UserCounter> result = userCounterService.getCounters(1L);
+
+        // Assert
+        assertFalse(result.isPresent());
+        verify(userCounterRepository, never()).insertIfAbsent(1L);
+        verify(userCounterRepository, never()).recountCounters(anyLong(), any(), any());
+    }
+}
@@ -0,0 +1,239 @@
+package com.fiteasy.service;
+
+import com.fiteasy.model.HelpingTool;
+import com.fiteasy.model.User;
+import com.fiteasy.model.WorkoutPlan;
+import com.fiteasy.repository.HelpingToolRepository;
+import com.fiteasy.repository.UserCounterRepository;
+import com.fiteasy.repository.UserRepository;
+import com.fiteasy.repository.WorkoutPlanRepository;
+import com.fiteasy.search.HelpingToolSearchIndex;
+import com.fiteasy.search.WorkoutPlanNameIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Deletion commits for real here, so the background purge can see it.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "app.users.purge.chunk-size=7",
+        "app.users.purge.chunk-pause=0ms"
+})
+@Import({UserService.class, UserCounterService.class, UserPurger.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserDeletionTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserPurger userPurger;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCounterRepository userCounterRepository;
+
+    @Autowired
+    private WorkoutPlanRepository workoutPlanRepository;
+
+    @Autowired
+    private HelpingToolRepository helpingToolRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private UserAvailabilityFilter availabilityFilter;
+
+    @MockitoBean
+    private PasswordHashingService passwordHashingService;
+
+    @MockitoBean
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private WorkoutPlanNameIndex nameIndex;
+
+    @MockitoBean
+    private HelpingToolSearchIndex searchIndex;
+
+    @AfterEach
+    void tearDown() {
+        workoutPlanRepository.deleteAllInBatch();
+        helpingToolRepository.deleteAllInBatch();
+        userCounterRepository.deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void testDeleteUser_HidesUserAtOnceAndPurgesDataInTheBackground() throws Exception {
+        // Arrange
+        Long doomed = userWithData("doomed", 25, 10);
+        Long kept = userWithData("kept", 3, 2);
+        double rowsBefore = purgedRows("workout_plans");
+        double completedBefore = meterRegistry.counter("app.users.purge.completed").count();
+
+        // Act
+        userService.deleteUser(doomed);
+
+        // Assert - gone for every query straight away, data removed once the purge has run
+        assertTrue(userRepository.findById(doomed).isEmpty());
+        assertFalse(userRepository.existsById(doomed));
+        awaitPurged();
+        assertEquals(0, workoutPlanRepository.countByUserId(doomed));
+        assertEquals(0, helpingToolRepository.countByUserId(doomed));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, doomed));
+        assertEquals(3, workoutPlanRepository.countByUserId(kept));
+        assertEquals(2, helpingToolRepository.countByUserId(kept));
+        assertTrue(userRepository.existsById(kept));
+        assertEquals(25, purgedRows("workout_plans") - rowsBefore);
+        assertEquals(1, meterRegistry.counter("app.users.purge.completed").count() - completedBefore);
+        verify(nameIndex).removeByUserId(doomed);
+        verify(searchIndex).removeByUserId(doomed);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> userService.deleteUser(doomed));
+        assertEquals("User not found with id: " + doomed, exception.getMessage());
+    }
+
+    @Test
+    void testDeleteUser_ReleasesUsernameAndEmailBeforeThePurge() throws Exception {
+        // Arrange - the purge executor is held busy, so the deleted row stays until released
+        when(passwordHashingService.hash(anyString())).thenReturn("hash");
+        Long deleted = userService.registerUser(new User("reused", "reused@example.com", "Password123")).getId();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService purgeExecutor = (ExecutorService) ReflectionTestUtils.getField(userPurger, "executor");
+        purgeExecutor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        try {
+            // Act
+            userService.deleteUser(deleted);
+            User again = userService.registerUser(new User("reused", "reused@example.com", "Password123"));
+
+            // Assert
+            assertNotEquals(deleted, again.getId());
+            assertEquals(List.of(deleted), userRepository.findDeletedIds());
+            assertEquals("deleted:" + deleted, jdbcTemplate.queryForObject(
+                    "SELECT username FROM users WHERE id = ?", String.class, deleted));
+            assertTrue(userRepository.existsByUsername("reused"));
+            RuntimeException exception = assertThrows(RuntimeException.class,
+                    () -> userService.registerUser(new User("deleted:" + again.getId(), "other@example.com", "Password123")));
+            assertEquals("Username already exists. Please choose a different username.", exception.getMessage());
+        } finally {
+            release.countDown();
+        }
+        awaitPurged();
+        assertNotEquals(deleted, userRepository.findByUsername("reused").orElseThrow().getId());
+    }
+
+    @Test
+    void testPurge_DeletesInBoundedChunksAndFinishesAnInterruptedPurge() {
+        // Arrange - marked deleted, and the first chunk already gone before a crash
+        Long userId = userWithData("crashed", 25, 10);
+        jdbcTemplate.update("UPDATE users SET deleted_at = CURRENT_TIMESTAMP WHERE id = ?", userId);
+        workoutPlanRepository.deleteByIdIn(workoutPlanRepository.findIdsByUserId(userId, Limit.of(7)));
+        long chunksBefore = chunks("workout_plans");
+
+        // Act
+        long deleted = userPurger.purge(userId);
+
+        // Assert - 18 plans in chunks of 7, 7, 4, then one empty look-up
+        assertEquals(28, deleted);
+        assertEquals(4, chunks("workout_plans") - chunksBefore);
+        assertEquals(0, workoutPlanRepository.countByUserId(userId));
+        assertEquals(0, helpingToolRepository.countByUserId(userId));
+        assertTrue(userRepository.findDeletedIds().isEmpty());
+    }
+
+    @Test
+    void testResumePending_PicksUpUsersStillMarkedDeleted() throws Exception {
+        // Arrange
+        Long userId = userWithData("restart", 5, 5);
+        jdbcTemplate.update("UPDATE users SET deleted_at = CURRENT_TIMESTAMP WHERE id = ?", userId);
+
+        // Act
+        userPurger.resumePending();
+
+        // Assert
+        awaitPurged();
+        assertEquals(0, workoutPlanRepository.countByUserId(userId));
+        assertEquals(0, helpingToolRepository.countByUserId(userId));
+    }
+
+    private Long userWithData(String username, int plans, int tools) {
+        Long userId = userRepository.save(new User(username, username + "@example.com", "Password123")).getId();
+        List<WorkoutPlan> workoutPlans = new ArrayList<>();
+        for (int i = 0; i < plans; i++) {
+            WorkoutPlan plan = new WorkoutPlan(userId);
+            plan.setWorkOut("Plan " + i);
+            workoutPlans.add(plan);
+        }
+        workoutPlanRepository.saveAll(workoutPlans);
+        List<HelpingTool> helpingTools = new ArrayList<>();
+        for (int i = 0; i < tools; i++) {
+            helpingTools.add(new HelpingTool(userId, HelpingTool.ToolType.youtube, "https://youtube.com/watch?v=" + i, null));
+        }
+        helpingToolRepository.saveAll(helpingTools);
+        return userId;
+    }
+
+    // Meters outlive a single test, so tests compare before and after
+    private double purgedRows(String table) {
+        return meterRegistry.counter("app.users.purge.rows", "table", table).count();
+    }
+
+    private long chunks(String table) {
+        return meterRegistry.timer("app.users.purge.chunk", "table", table).count();
+    }
+
+    private void awaitPurged() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!userRepository.findDeletedIds().isEmpty()) {
+            assertTrue(System.currentTimeMillis() < deadline, "purge did not finish");
+            Thread.sleep(20);
+        }
+    }
+}
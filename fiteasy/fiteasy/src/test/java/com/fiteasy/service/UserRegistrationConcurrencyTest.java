@@ -0,0 +1,193 @@
+package com.fiteasy.service;
+
+import com.fiteasy.model.User;
+import com.fiteasy.repository.UserCounterRepository;
+import com.fiteasy.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Fires 500 signups at once against H2 so the check-then-insert race actually happens.
+ * Runs outside the test transaction; every registration commits on its own.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.datasource.hikari.maximum-pool-size=32"
+})
+@Import({UserService.class, UserCounterService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserRegistrationConcurrencyTest {
+
+    private static final int SIGNUPS = 500;
+    private static final int THREADS = 32;
+    private static final String USERNAME_TAKEN = "Username already exists. Please choose a different username.";
+    private static final String EMAIL_TAKEN = "Email already exists. Please use a different email address.";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCounterRepository userCounterRepository;
+
+    @Autowired
+    private UserCounterService userCounterService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private UserAvailabilityFilter availabilityFilter;
+
+    @MockitoBean
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private PasswordHashingService passwordHashingService;
+
+    @MockitoBean
+    private UserPurger userPurger;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        when(passwordHashingService.hash(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userCounterRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void uniqueSignups_AllSucceedWithOneUniquenessQueryFewerEach() throws Exception {
+        // Arrange - the old path (two exists checks, then save) as the baseline
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Map<String, Integer> legacy = signUp(i -> transaction.execute(status -> {
+            User user = new User("legacy" + i, "legacy" + i + "@example.com", "Password123");
+            if (userRepository.existsByUsername(user.getUsername())) {
+                throw new RuntimeException(USERNAME_TAKEN);
+            }
+            if (userRepository.existsByEmail(user.getEmail())) {
+                throw new RuntimeException(EMAIL_TAKEN);
+            }
+            User saved = userRepository.save(user);
+            userCounterService.initializeCounters(saved.getId());
+            return saved;
+        }));
+        long legacyQueries = statistics.getQueryExecutionCount();
+        statistics.clear();
+
+        // Act
+        Map<String, Integer> outcomes = signUp(i -> userService.registerUser(
+                new User("user" + i, "user" + i + "@example.com", "Password123")));
+        long queries = statistics.getQueryExecutionCount();
+
+        // Assert
+        assertEquals(Map.of("ok", SIGNUPS), legacy);
+        assertEquals(Map.of("ok", SIGNUPS), outcomes);
+        assertEquals(SIGNUPS * 2L, userRepository.count());
+        assertEquals(SIGNUPS * 2L, userCounterRepository.count());
+        // Per signup: the two exists checks, or the single conflict check. The counter row is one
+        // upsert with no read before it, and Hibernate does not count inserts as queries
+        assertEquals(SIGNUPS * 2L, legacyQueries);
+        assertEquals(SIGNUPS * 1L, queries);
+    }
+
+    @Test
+    void conflictingUsernames_ExactlyOneWinnerPerUsername() throws Exception {
+        // Act - 50 usernames, each raced by 10 signups with distinct emails
+        Map<String, Integer> outcomes = signUp(i -> userService.registerUser(
+                new User("racer" + (i % 50), "racer" + i + "@example.com", "Password123")));
+
+        // Assert
+        assertEquals(Map.of("ok", 50, USERNAME_TAKEN, SIGNUPS - 50), outcomes);
+        assertEquals(50, userRepository.count());
+        assertEquals(50, userCounterRepository.count());
+    }
+
+    @Test
+    void conflictingEmails_ExactlyOneWinnerPerEmail() throws Exception {
+        // Act - 50 emails, each raced by 10 signups with distinct usernames
+        Map<String, Integer> outcomes = signUp(i -> userService.registerUser(
+                new User("racer" + i, "racer" + (i % 50) + "@example.com", "Password123")));
+
+        // Assert
+        assertEquals(Map.of("ok", 50, EMAIL_TAKEN, SIGNUPS - 50), outcomes);
+        assertEquals(50, userRepository.count());
+        assertEquals(50, userCounterRepository.count());
+    }
+
+    // Release all signups together and tally results by outcome ("ok" or the error message)
+    private Map<String, Integer> signUp(IntFunction<User> registration) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Map<String, AtomicInteger> tally = new ConcurrentHashMap<>();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < SIGNUPS; i++) {
+                int n = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    String outcome;
+                    try {
+                        registration.apply(n);
+                        outcome = "ok";
+                    } catch (RuntimeException e) {
+                        outcome = e.getMessage();
+                    }
+                    tally.computeIfAbsent(outcome, k -> new AtomicInteger()).incrementAndGet();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Map<String, Integer> result = new ConcurrentHashMap<>();
+        tally.forEach((outcome, count) -> result.put(outcome, count.get()));
+        return result;
+    }
+}
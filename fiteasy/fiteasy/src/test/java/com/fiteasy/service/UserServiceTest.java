@@ -1,17 +1,25 @@
 package com.fiteasy.service;
 
+import com.fiteasy.model.HelpingTool;
 import com.fiteasy.model.User;
+import com.fiteasy.repository.UserDashboardCounts;
 import com.fiteasy.repository.UserRepository;
 import com.fiteasy.repository.WorkoutPlanRepository;
 import com.fiteasy.repository.HelpingToolRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.time.LocalDate;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,9 +37,26 @@ class UserServiceTest {
     @Mock
     private HelpingToolRepository helpingToolRepository;
 
+    @Mock
+    private UserCounterService userCounterService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private UserAvailabilityFilter availabilityFilter;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private UserService userService;
 
+    private static final String HASHED_PASSWORD = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z8f1r4v6w1mZ0fQ9mR8HqB6e";
+
     private User testUser;
 
     @BeforeEach
@@ -44,9 +69,9 @@ class UserServiceTest {
     @Test
     void testRegisterUser_Success() {
         // Arrange
-        when(userRepository.existsByUsername("testuser")).thenReturn(false);
-        when(userRepository.existsByEmail("test@example.com")).thenReturn(false);
-        when(userRepository.save(testUser)).thenReturn(testUser);
+        when(userRepository.findUniqueConflicts("testuser", "test@example.com")).thenReturn(conflicts(null, null));
+        when(passwordHashingService.hash("Password123")).thenReturn(HASHED_PASSWORD);
+        when(userRepository.saveAndFlush(testUser)).thenReturn(testUser);
 
         // Act
         User result = userService.registerUser(testUser);
@@ -55,13 +80,15 @@ class UserServiceTest {
         assertNotNull(result);
         assertEquals("testuser", result.getUsername());
         assertEquals("test@example.com", result.getEmail());
-        verify(userRepository, times(1)).save(testUser);
+        assertEquals(HASHED_PASSWORD, result.getPassword());
+        verify(userRepository, times(1)).saveAndFlush(testUser);
+        verify(userCounterService, times(1)).initializeCounters(1L);
     }
 
     @Test
     void testRegisterUser_DuplicateUsername() {
         // Arrange
-        when(userRepository.existsByUsername("testuser")).thenReturn(true);
+        when(userRepository.findUniqueConflicts("testuser", "test@example.com")).thenReturn(conflicts(1, 1));
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -69,14 +96,13 @@ class UserServiceTest {
         });
 
         assertEquals("Username already exists. Please choose a different username.", exception.getMessage());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
     void testRegisterUser_DuplicateEmail() {
         // Arrange
-        when(userRepository.existsByUsername("testuser")).thenReturn(false);
-        when(userRepository.existsByEmail("test@example.com")).thenReturn(true);
+        when(userRepository.findUniqueConflicts("testuser", "test@example.com")).thenReturn(conflicts(0, 1));
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -84,9 +110,10 @@ class UserServiceTest {
         });
 
         assertEquals("Email already exists. Please use a different email address.", exception.getMessage());
-        verify(userRepository, never()).save(any(User.class));
-        verify(userRepository, times(1)).existsByUsername("testuser");
-        verify(userRepository, times(1)).existsByEmail("test@example.com");
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+        verify(userRepository, times(1)).findUniqueConflicts("testuser", "test@example.com");
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
     }
 
     @Test
@@ -100,7 +127,7 @@ class UserServiceTest {
         });
 
         assertEquals("Username is required", exception.getMessage());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -114,7 +141,7 @@ class UserServiceTest {
         });
 
         assertEquals("Email is required", exception.getMessage());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -128,7 +155,7 @@ class UserServiceTest {
         });
 
         assertEquals("Password is required", exception.getMessage());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -142,7 +169,7 @@ class UserServiceTest {
         });
 
         assertEquals("Invalid email format", exception.getMessage());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -156,6 +183,224 @@ class UserServiceTest {
         });
 
         assertEquals("Password must be at least 8 characters long", exception.getMessage());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+    }
+
+    @Test
+    void testGetUserCounts_FromCounters() {
+        // Arrange
+        UserDashboardCounts dashboardCounts = mock(UserDashboardCounts.class);
+        when(dashboardCounts.getUserDetails()).thenReturn(1);
+        when(dashboardCounts.getBmiResults()).thenReturn(2L);
+        when(dashboardCounts.getWorkoutPlans()).thenReturn(3L);
+        when(dashboardCounts.getYoutubeTools()).thenReturn(4L);
+        when(dashboardCounts.getEquipmentTools()).thenReturn(5L);
+        when(userRepository.findDashboardCountsFromCounters(1L)).thenReturn(Optional.of(dashboardCounts));
+
+        // Act
+        Map<String, Object> counts = userService.getUserCounts(1L);
+
+        // Assert
+        assertEquals(3, counts.get("workoutPlans"));
+        assertEquals(9, counts.get("helpingTools"));
+        verify(userRepository, never()).findDashboardCounts(anyLong(), any(), any());
+    }
+
+    @Test
+    void testGetUserCounts_SingleAggregatedQuery() {
+        // Arrange
+        UserDashboardCounts dashboardCounts = mock(UserDashboardCounts.class);
+        when(dashboardCounts.getUserDetails()).thenReturn(1);
+        when(dashboardCounts.getBmiResults()).thenReturn(2L);
+        when(dashboardCounts.getWorkoutPlans()).thenReturn(3L);
+        when(dashboardCounts.getYoutubeTools()).thenReturn(4L);
+        when(dashboardCounts.getEquipmentTools()).thenReturn(5L);
+        when(userRepository.findDashboardCountsFromCounters(1L)).thenReturn(Optional.empty());
+        when(userRepository.findDashboardCounts(1L, HelpingTool.ToolType.youtube, HelpingTool.ToolType.equipment))
+                .thenReturn(Optional.of(dashboardCounts));
+
+        // Act
+        Map<String, Object> counts = userService.getUserCounts(1L);
+
+        // Assert
+        assertEquals(1, counts.get("userDetails"));
+        assertEquals(2, counts.get("bmiResults"));
+        assertEquals(3, counts.get("workoutPlans"));
+        assertEquals(4, counts.get("youtubeTools"));
+        assertEquals(5, counts.get("equipmentTools"));
+        assertEquals(9, counts.get("helpingTools"));
+        verify(userRepository, never()).findById(anyLong());
+        verifyNoInteractions(workoutPlanRepository, helpingToolRepository);
+    }
+
+    @Test
+    void testGetUserCounts_UserNotFound() {
+        // Arrange
+        when(userRepository.findDashboardCountsFromCounters(1L)).thenReturn(Optional.empty());
+        when(userRepository.findDashboardCounts(1L, HelpingTool.ToolType.youtube, HelpingTool.ToolType.equipment))
+                .thenReturn(Optional.empty());
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            userService.getUserCounts(1L);
+        });
+
+        assertEquals("User not found", exception.getMessage());
+    }
+
+    @Test
+    void testUsernameExists_FilterMissSkipsDatabase() {
+        // Arrange
+        when(availabilityFilter.mightContainUsername("newuser")).thenReturn(false);
+
+        // Act
+        boolean exists = userService.usernameExists("newuser");
+
+        // Assert
+        assertFalse(exists);
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(availabilityFilter).recordCheck("username", true, false);
+    }
+
+    @Test
+    void testEmailExists_FilterHitFallsThroughToDatabase() {
+        // Arrange
+        when(availabilityFilter.mightContainEmail("test@example.com")).thenReturn(true);
+        when(userRepository.existsByEmail("test@example.com")).thenReturn(true);
+
+        // Act
+        boolean exists = userService.emailExists("test@example.com");
+
+        // Assert
+        assertTrue(exists);
+        verify(availabilityFilter).recordCheck("email", false, true);
+    }
+
+    @Test
+    void testRegisterUser_AddsToAvailabilityFilterBeforeSave() {
+        // Arrange
+        when(userRepository.findUniqueConflicts("testuser", "test@example.com")).thenReturn(conflicts(null, null));
+        when(passwordHashingService.hash("Password123")).thenReturn(HASHED_PASSWORD);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
+
+        // Act
+        userService.registerUser(testUser);
+
+        // Assert
+        InOrder inOrder = inOrder(availabilityFilter, userRepository);
+        inOrder.verify(availabilityFilter).add("testuser", "test@example.com");
+        inOrder.verify(userRepository).saveAndFlush(testUser);
+    }
+
+    @Test
+    void testRegisterUser_EmailRaceTranslatedFromUniqueIndex() {
+        // Arrange
+        when(userRepository.findUniqueConflicts("testuser", "test@example.com")).thenReturn(conflicts(null, null));
+        when(passwordHashingService.hash("Password123")).thenReturn(HASHED_PASSWORD);
+        when(userRepository.saveAndFlush(testUser)).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLIntegrityConstraintViolationException("Duplicate entry 'test@example.com' for key 'users.UK6dotkott2kjsp8vw4d0m25fb7'")));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            userService.registerUser(testUser);
+        });
+
+        assertEquals("Email already exists. Please use a different email address.", exception.getMessage());
+        verify(userCounterService, never()).initializeCounters(anyLong());
+    }
+
+    @Test
+    void testRegisterUser_UsernameRaceTranslatedFromUniqueIndex() {
+        // Arrange
+        when(userRepository.findUniqueConflicts("testuser", "test@example.com")).thenReturn(conflicts(null, null));
+        when(passwordHashingService.hash("Password123")).thenReturn(HASHED_PASSWORD);
+        when(userRepository.saveAndFlush(testUser)).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLIntegrityConstraintViolationException("Duplicate entry 'testuser' for key 'users.UKr43af9ap4edm43mmtq01oddj6'")));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            userService.registerUser(testUser);
+        });
+
+        assertEquals("Username already exists. Please choose a different username.", exception.getMessage());
+    }
+
+    @Test
+    void testAuthenticateUser_HashedPassword() {
+        // Arrange
+        testUser.setPassword(HASHED_PASSWORD);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordHashingService.matches("Password123", HASHED_PASSWORD)).thenReturn(true);
+        when(passwordHashingService.needsRehash(HASHED_PASSWORD)).thenReturn(false);
+
+        // Act
+        Optional<User> result = userService.authenticateUser("testuser", "Password123");
+
+        // Assert
+        assertTrue(result.isPresent());
+        verify(passwordHashingService, never()).hash(anyString());
+        verify(userRepository, never()).updatePassword(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    void testAuthenticateUser_WrongPassword() {
+        // Arrange
+        testUser.setPassword(HASHED_PASSWORD);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordHashingService.matches("Wrong12345", HASHED_PASSWORD)).thenReturn(false);
+
+        // Act
+        Optional<User> result = userService.authenticateUser("testuser", "Wrong12345");
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(userRepository, never()).updatePassword(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    void testAuthenticateUser_LegacyPlainTextPasswordUpgraded() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordHashingService.matches("Password123", "Password123")).thenReturn(true);
+        when(passwordHashingService.needsRehash("Password123")).thenReturn(true);
+        when(passwordHashingService.hash("Password123")).thenReturn(HASHED_PASSWORD);
+        when(userRepository.updatePassword(1L, "Password123", HASHED_PASSWORD)).thenReturn(1);
+
+        // Act
+        Optional<User> result = userService.authenticateUser("testuser", "Password123");
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(HASHED_PASSWORD, result.get().getPassword());
+    }
+
+    @Test
+    void testAuthenticateUser_UpgradeSkippedWhenHashingSaturated() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordHashingService.matches("Password123", "Password123")).thenReturn(true);
+        when(passwordHashingService.needsRehash("Password123")).thenReturn(true);
+        when(passwordHashingService.hash("Password123")).thenThrow(new PasswordHashingService.SaturatedException());
+
+        // Act
+        Optional<User> result = userService.authenticateUser("testuser", "Password123");
+
+        // Assert
+        assertTrue(result.isPresent());
+        verify(userRepository, never()).updatePassword(anyLong(), anyString(), anyString());
+    }
+
+    private static UserRepository.UniqueConflicts conflicts(Integer usernameTaken, Integer emailTaken) {
+        return new UserRepository.UniqueConflicts() {
+            @Override
+            public Integer getUsernameTaken() {
+                return usernameTaken;
+            }
+
+            @Override
+            public Integer getEmailTaken() {
+                return emailTaken;
+            }
+        };
     }
 }
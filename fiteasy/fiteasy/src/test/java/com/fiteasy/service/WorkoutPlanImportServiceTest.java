@@ -0,0 +1,199 @@
+package com.fiteasy.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fiteasy.model.WorkoutPlan;
+import com.fiteasy.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WorkoutPlanImportServiceTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    @Mock
+    private WorkoutPlanService workoutPlanService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private WorkoutPlanImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(importService, "objectMapper", objectMapper);
+        lenient().doCallRealMethod().when(workoutPlanService).validateWorkoutPlanFields(any(WorkoutPlan.class));
+    }
+
+    @Test
+    void testImportJson_SavesValidRowsAndReportsTheRest() throws Exception {
+        // Arrange
+        String body = "[{\"id\":99,\"userId\":1,\"height\":175,\"weight\":70,\"trainer\":\"John\",\"workOut\":\"Squats\",\"bmiData\":\"1.00\"},"
+                + "{\"userId\":2,\"workOut\":\"Rows\"},"
+                + "{\"userId\":1,\"height\":-5,\"weight\":70,\"workOut\":\"Bench\"},"
+                + "{\"userId\":1,\"height\":\"tall\",\"workOut\":\"Bench\"},"
+                + "{\"userId\":1},"
+                + "42,"
+                + "{\"workOut\":\"Deadlift\"}]";
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+        when(workoutPlanService.createWorkoutPlans(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        WorkoutPlanImportService.ImportReport report = importService.importJson(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(7, report.rows());
+        assertEquals(1, report.imported());
+        assertEquals(6, report.failed());
+        assertEquals(List.of(
+                new WorkoutPlanImportService.RowError(2, "User not found with id: 2"),
+                new WorkoutPlanImportService.RowError(3, "Height must be positive"),
+                new WorkoutPlanImportService.RowError(5, "Workout description is required"),
+                new WorkoutPlanImportService.RowError(6, "Each workout plan must be an object"),
+                new WorkoutPlanImportService.RowError(7, "User id is required")
+        ), report.errors().stream().filter(error -> error.row() != 4).toList());
+        assertTrue(report.errors().get(2).message().startsWith("Invalid value"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WorkoutPlan>> saved = ArgumentCaptor.forClass(List.class);
+        verify(workoutPlanService, times(1)).createWorkoutPlans(saved.capture());
+        WorkoutPlan plan = saved.getValue().get(0);
+        assertNull(plan.getId());
+        assertEquals("22.86", plan.getBmiData());
+        assertEquals("John", plan.getTrainer());
+        verify(userRepository, times(1)).findExistingIds(anyCollection());
+    }
+
+    @Test
+    void testImportJson_FailedChunkDoesNotAbortTheImport() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(importService, "chunkSize", 2);
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 5; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"userId\":").append(i % 2 + 1).append(",\"workOut\":\"Run\"}");
+        }
+        body.append("]");
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L, 2L));
+        when(workoutPlanService.createWorkoutPlans(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new RuntimeException("Deadlock found"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        WorkoutPlanImportService.ImportReport report = importService.importJson(
+                new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)));
+
+        // Assert - chunk [3, 4] rolled back, the rest committed; user ids were looked up once
+        assertEquals(5, report.rows());
+        assertEquals(3, report.imported());
+        assertEquals(List.of(
+                new WorkoutPlanImportService.RowError(3, "Could not save row: Deadlock found"),
+                new WorkoutPlanImportService.RowError(4, "Could not save row: Deadlock found")
+        ), report.errors());
+        verify(workoutPlanService, times(3)).createWorkoutPlans(anyList());
+        verify(userRepository, times(1)).findExistingIds(anyCollection());
+    }
+
+    @Test
+    void testImportCsv_MapsHeaderColumnsAndQuotedValues() throws Exception {
+        // Arrange
+        String csv = "user_id,height,weight,gym_name,work_out,notes\n"
+                + "1,160,40,\"Iron \"\"Temple\"\"\",\"Squats, lunges\",ignored\n"
+                + "\n"
+                + "1,,,,\n";
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+        when(workoutPlanService.createWorkoutPlans(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        WorkoutPlanImportService.ImportReport report = importService.importCsv(new StringReader(csv));
+
+        // Assert
+        assertEquals(2, report.rows());
+        assertEquals(1, report.imported());
+        assertEquals(List.of(new WorkoutPlanImportService.RowError(2, "Workout description is required")), report.errors());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WorkoutPlan>> saved = ArgumentCaptor.forClass(List.class);
+        verify(workoutPlanService).createWorkoutPlans(saved.capture());
+        WorkoutPlan plan = saved.getValue().get(0);
+        assertEquals("Iron \"Temple\"", plan.getGymName());
+        assertEquals("Squats, lunges", plan.getWorkOut());
+        assertEquals(0, new BigDecimal("160").compareTo(plan.getHeight()));
+        assertEquals("15.63", plan.getBmiData());
+    }
+
+    @Test
+    void testImportCsv_QuotedValuesSpanLines() throws Exception {
+        // Arrange
+        String csv = "user_id,work_out\n"
+                + "1,\"Squats\nLunges\"\n"
+                + "1,Rows\n";
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+        when(workoutPlanService.createWorkoutPlans(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        WorkoutPlanImportService.ImportReport report = importService.importCsv(new StringReader(csv));
+
+        // Assert
+        assertEquals(2, report.rows());
+        assertEquals(2, report.imported());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WorkoutPlan>> saved = ArgumentCaptor.forClass(List.class);
+        verify(workoutPlanService).createWorkoutPlans(saved.capture());
+        assertEquals("Squats\nLunges", saved.getValue().get(0).getWorkOut());
+        assertEquals("Rows", saved.getValue().get(1).getWorkOut());
+    }
+
+    @Test
+    void testImportCsv_UnterminatedQuoteIsARowError() throws Exception {
+        // Arrange - the quote never closes, so the rows after it are read again on their own
+        String csv = "user_id,work_out\n"
+                + "1,\"Squats\n"
+                + "1,Rows\n"
+                + "1,Deadlifts\n";
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+        when(workoutPlanService.createWorkoutPlans(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        WorkoutPlanImportService.ImportReport report = importService.importCsv(new StringReader(csv));
+
+        // Assert
+        assertEquals(3, report.rows());
+        assertEquals(2, report.imported());
+        assertEquals(List.of(new WorkoutPlanImportService.RowError(1, "Unterminated quoted value")), report.errors());
+        assertThrows(IllegalArgumentException.class, () -> importService.importCsv(new StringReader("\"user_id,work_out\n1,Rows\n")));
+    }
+
+    @Test
+    void testImport_RejectsBodiesThatAreNotAnArrayOrLackUserIds() {
+        assertThrows(IllegalArgumentException.class, () -> importService.importJson(
+                new ByteArrayInputStream("{\"userId\":1}".getBytes(StandardCharsets.UTF_8))));
+        assertThrows(IllegalArgumentException.class, () -> importService.importCsv(new StringReader("height,weight\n170,70\n")));
+        verifyNoInteractions(workoutPlanService, userRepository);
+    }
+}
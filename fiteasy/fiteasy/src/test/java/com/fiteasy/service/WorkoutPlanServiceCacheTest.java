@@ -0,0 +1,83 @@
+package com.fiteasy.service;
+
+import com.fiteasy.config.CacheConfig;
+import com.fiteasy.model.WorkoutPlan;
+import com.fiteasy.repository.UserRepository;
+import com.fiteasy.repository.WorkoutPlanRepository;
+import com.fiteasy.repository.WorkoutPlanSummary;
+import com.fiteasy.search.WorkoutPlanNameIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig({CacheConfig.class, WorkoutPlanService.class})
+class WorkoutPlanServiceCacheTest {
+
+    @Autowired
+    private WorkoutPlanService workoutPlanService;
+
+    @MockitoBean
+    private WorkoutPlanRepository workoutPlanRepository;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private UserCounterService userCounterService;
+
+    @MockitoBean
+    private WorkoutPlanNameIndex nameIndex;
+
+    @Test
+    void testGetWorkoutPlansByUserId_ServedFromCache() {
+        // Arrange
+        when(workoutPlanRepository.findSummariesByUserId(10L)).thenReturn(List.of(WorkoutPlanSummary.preview(new WorkoutPlan(10L))));
+
+        // Act
+        List<WorkoutPlanSummary> first = workoutPlanService.getWorkoutPlansByUserId(10L);
+        List<WorkoutPlanSummary> second = workoutPlanService.getWorkoutPlansByUserId(10L);
+
+        // Assert
+        assertEquals(1, first.size());
+        assertSame(first, second);
+        verify(workoutPlanRepository, times(1)).findSummariesByUserId(10L);
+    }
+
+    @Test
+    void testDeleteWorkoutPlan_EvictsUserEntry() {
+        // Arrange
+        WorkoutPlan plan = new WorkoutPlan(20L);
+        plan.setId(5L);
+        when(workoutPlanRepository.findSummariesByUserId(20L)).thenReturn(List.of(WorkoutPlanSummary.preview(plan)));
+        when(workoutPlanRepository.findById(5L)).thenReturn(Optional.of(plan));
+        workoutPlanService.getWorkoutPlansByUserId(20L);
+
+        // Act
+        workoutPlanService.deleteWorkoutPlan(5L);
+        workoutPlanService.getWorkoutPlansByUserId(20L);
+
+        // Assert
+        verify(workoutPlanRepository, times(2)).findSummariesByUserId(20L);
+    }
+
+    @Test
+    void testDeleteWorkoutPlansByUserId_EvictsUserEntry() {
+        // Arrange
+        when(workoutPlanRepository.findSummariesByUserId(30L)).thenReturn(List.of());
+        workoutPlanService.getWorkoutPlansByUserId(30L);
+
+        // Act
+        workoutPlanService.deleteWorkoutPlansByUserId(30L);
+        workoutPlanService.getWorkoutPlansByUserId(30L);
+
+        // Assert
+        verify(workoutPlanRepository, times(2)).findSummariesByUserId(30L);
+    }
+}
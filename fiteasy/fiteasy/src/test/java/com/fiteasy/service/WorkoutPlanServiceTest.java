@@ -2,13 +2,20 @@ package com.fiteasy.service;
 
 import com.fiteasy.model.WorkoutPlan;
 import com.fiteasy.repository.WorkoutPlanRepository;
+import com.fiteasy.repository.WorkoutPlanSummary;
 import com.fiteasy.repository.UserRepository;
+import com.fiteasy.search.TrigramIndex;
+import com.fiteasy.search.WorkoutPlanNameIndex;
+import com.fiteasy.util.CursorPage;
+import com.fiteasy.util.SearchPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -28,6 +35,15 @@ class WorkoutPlanServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCounterService userCounterService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private WorkoutPlanNameIndex nameIndex;
+
     @InjectMocks
     private WorkoutPlanService workoutPlanService;
 
@@ -65,6 +81,7 @@ class WorkoutPlanServiceTest {
         assertEquals("Male", result.getGender());
         assertNotNull(result.getBmiData());
         verify(workoutPlanRepository, times(1)).save(testWorkoutPlan);
+        verify(userCounterService, times(1)).workoutPlanAdded(1L, true);
     }
 
     @Test
@@ -144,17 +161,18 @@ class WorkoutPlanServiceTest {
     @Test
     void testGetWorkoutPlansByUserId_Success() {
         // Arrange
-        List<WorkoutPlan> expectedPlans = Arrays.asList(testWorkoutPlan);
-        when(workoutPlanRepository.findByUserId(1L)).thenReturn(expectedPlans);
+        List<WorkoutPlanSummary> expectedPlans = Arrays.asList(WorkoutPlanSummary.preview(testWorkoutPlan));
+        when(workoutPlanRepository.findSummariesByUserId(1L)).thenReturn(expectedPlans);
 
         // Act
-        List<WorkoutPlan> result = workoutPlanService.getWorkoutPlansByUserId(1L);
+        List<WorkoutPlanSummary> result = workoutPlanService.getWorkoutPlansByUserId(1L);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals(testWorkoutPlan.getId(), result.get(0).getId());
-        verify(workoutPlanRepository, times(1)).findByUserId(1L);
+        assertEquals(testWorkoutPlan.getId(), result.get(0).id());
+        verify(workoutPlanRepository, times(1)).findSummariesByUserId(1L);
+        verify(workoutPlanRepository, never()).findByUserId(anyLong());
     }
 
     @Test
@@ -231,6 +249,7 @@ class WorkoutPlanServiceTest {
 
         // Assert
         verify(workoutPlanRepository, times(1)).delete(testWorkoutPlan);
+        verify(userCounterService, times(1)).workoutPlanRemoved(1L, false);
     }
 
     @Test
@@ -336,4 +355,114 @@ class WorkoutPlanServiceTest {
         // Assert
         assertEquals("Obese", category);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetWorkoutPlansPage_ReturnsNextCursor() {
+        // Arrange
+        WorkoutPlan second = new WorkoutPlan(1L);
+        second.setId(2L);
+        WorkoutPlan third = new WorkoutPlan(1L);
+        third.setId(3L);
+        when(workoutPlanRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3)))
+                .thenReturn(Arrays.asList(testWorkoutPlan, second, third));
+        when(workoutPlanRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3)))
+                .thenReturn(Arrays.asList(third));
+
+        // Act
+        CursorPage<WorkoutPlan> firstPage = workoutPlanService.getWorkoutPlansPage(null, 2);
+        CursorPage<WorkoutPlan> lastPage = workoutPlanService.getWorkoutPlansPage(firstPage.nextCursor(), 2);
+
+        // Assert
+        assertEquals(2, firstPage.items().size());
+        assertNotNull(firstPage.nextCursor());
+        assertEquals(1, lastPage.items().size());
+        assertEquals(3L, lastPage.items().get(0).getId());
+        assertNull(lastPage.nextCursor());
+    }
+
+    @Test
+    void testGetWorkoutPlansPage_InvalidCursor() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            workoutPlanService.getWorkoutPlansPage("not-a-cursor", 10);
+        });
+
+        assertEquals("Invalid cursor", exception.getMessage());
+        verify(workoutPlanRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void testGetWorkoutPlansPage_SizeIsClamped() {
+        // Arrange
+        when(workoutPlanRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(CursorPage.MAX_SIZE + 1)))
+                .thenReturn(List.of());
+
+        // Act
+        CursorPage<WorkoutPlan> page = workoutPlanService.getWorkoutPlansPage(null, 1_000_000);
+
+        // Assert
+        assertEquals(CursorPage.MAX_SIZE, page.size());
+        assertTrue(page.items().isEmpty());
+    }
+
+    @Test
+    void testGetWorkoutPlansByTrainer_KeepsIndexRanking() {
+        // Arrange
+        TrigramIndex trainers = new TrigramIndex();
+        trainers.add(1L, "Johnny Walker");
+        trainers.add(2L, "John Doe");
+        WorkoutPlan first = new WorkoutPlan();
+        first.setId(1L);
+        WorkoutPlan second = new WorkoutPlan();
+        second.setId(2L);
+        when(nameIndex.isReady()).thenReturn(true);
+        when(nameIndex.trainers()).thenReturn(trainers);
+        when(workoutPlanRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(first, second));
+
+        // Act
+        SearchPage<WorkoutPlan> result = workoutPlanService.getWorkoutPlansByTrainer("john", false, 0, null);
+
+        // Assert
+        assertEquals(List.of(2L, 1L), result.items().stream().map(WorkoutPlan::getId).toList());
+        assertNull(result.nextPage());
+        verify(workoutPlanRepository, never()).findByTrainerContainingIgnoreCase(anyString());
+    }
+
+    @Test
+    void testGetWorkoutPlansByTrainer_ReportsNextPageWhenTruncated() {
+        // Arrange
+        TrigramIndex trainers = new TrigramIndex();
+        trainers.add(1L, "John Doe");
+        trainers.add(2L, "John Doe");
+        trainers.add(3L, "Jon Doe");
+        WorkoutPlan newest = new WorkoutPlan();
+        newest.setId(2L);
+        when(nameIndex.isReady()).thenReturn(true);
+        when(nameIndex.trainers()).thenReturn(trainers);
+        when(workoutPlanRepository.findPreviewsByIdIn(List.of(2L))).thenReturn(List.of(WorkoutPlanSummary.preview(newest)));
+
+        // Act
+        SearchPage<WorkoutPlanSummary> first = workoutPlanService.getWorkoutPlanSummariesByTrainer("john doe", false, 0, 1);
+        SearchPage<WorkoutPlanSummary> last = workoutPlanService.getWorkoutPlanSummariesByTrainer("john doe", false, 1, 1);
+
+        // Assert - substring search by default: "Jon Doe" is not a match
+        assertEquals(List.of(2L), first.items().stream().map(WorkoutPlanSummary::id).toList());
+        assertEquals(1, first.nextPage());
+        assertNull(last.nextPage());
+    }
+
+    @Test
+    void testGetWorkoutPlansByGym_FallsBackUntilIndexIsReady() {
+        // Arrange
+        when(nameIndex.isReady()).thenReturn(false);
+        when(workoutPlanRepository.findByGymNameContainingIgnoreCase("fit")).thenReturn(List.of(testWorkoutPlan));
+
+        // Act
+        SearchPage<WorkoutPlan> result = workoutPlanService.getWorkoutPlansByGym("fit", false, 0, null);
+
+        // Assert
+        assertEquals(1, result.items().size());
+        assertNull(result.nextPage());
+        verify(nameIndex, never()).gyms();
+    }
+}
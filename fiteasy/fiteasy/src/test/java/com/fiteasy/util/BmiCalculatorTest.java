@@ -0,0 +1,76 @@
+package com.fiteasy.util;
+
+import com.fiteasy.service.WorkoutPlanService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BmiCalculatorTest {
+
+    private final WorkoutPlanService workoutPlanService = new WorkoutPlanService();
+
+    @Test
+    void testBmiCents_MatchesServiceForRandomMeasurements() {
+        // Arrange
+        Random random = new Random(7);
+
+        for (int i = 0; i < 200_000; i++) {
+            String height = randomDecimal(random, 30, 250, random.nextInt(5));
+            String weight = randomDecimal(random, 1, 400, random.nextInt(4));
+
+            // Act & Assert
+            assertMatchesService(height, weight);
+        }
+    }
+
+    @Test
+    void testBmiCents_MatchesServiceOnRoundingBoundaries() {
+        // Act & Assert
+        assertMatchesService("175", "70");
+        assertMatchesService("175.005", "70");
+        assertMatchesService("175.00499", "70");
+        assertMatchesService("100", "18.495");
+        assertMatchesService("100", "18.5");
+        assertMatchesService("200", "100");
+        assertMatchesService("0.01", "0.001");
+        assertMatchesService("1.75e2", "7E1");
+        assertMatchesService("175.123456789012345678", "70.12345678901");
+        assertMatchesService("99999999999999999999", "1");
+        assertMatchesService("1", "9999999999");
+    }
+
+    @Test
+    void testBmiCents_RejectsInvalidInput() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> BmiCalculator.bmiCents("0", "70"));
+        assertThrows(IllegalArgumentException.class, () -> BmiCalculator.bmiCents("175", "-70"));
+        assertThrows(IllegalArgumentException.class, () -> BmiCalculator.bmiCents("abc", "70"));
+        assertThrows(IllegalArgumentException.class, () -> BmiCalculator.bmiCents("0.001", "70"));
+        assertThrows(IllegalArgumentException.class, () -> BmiCalculator.bmiCents(null, "70"));
+        assertThrows(IllegalArgumentException.class, () -> BmiCalculator.bmiCents("1", "99999999999999999"));
+    }
+
+    @Test
+    void testCategory_MatchesServiceThresholds() {
+        // Act & Assert
+        for (long cents = 1700; cents <= 3200; cents++) {
+            String bmi = BmiCalculator.format(cents);
+            assertEquals(workoutPlanService.getBMICategory(new BigDecimal(bmi)), BmiCalculator.category(cents), bmi);
+        }
+    }
+
+    private void assertMatchesService(String height, String weight) {
+        String expected = workoutPlanService.calculateBMI(new BigDecimal(height), new BigDecimal(weight));
+        long cents = BmiCalculator.bmiCents(height, weight);
+        assertEquals(expected, BmiCalculator.format(cents), height + " / " + weight);
+        assertEquals(workoutPlanService.getBMICategory(new BigDecimal(expected)), BmiCalculator.category(cents));
+    }
+
+    private static String randomDecimal(Random random, int min, int max, int scale) {
+        BigDecimal value = BigDecimal.valueOf(min + random.nextDouble() * (max - min));
+        return value.setScale(scale, java.math.RoundingMode.DOWN).toPlainString();
+    }
+}